@@ -0,0 +1,77 @@
+#!/usr/bin/env python3
+
+"""
+Aggregates the @@@PROF lines of quals.utils.Profiler into bytecode use per section and robot
+type, over every unit of every match given.
+
+Turn Profiler.ENABLED on, then collect logs with e.g. `scripts/run.py -v ... > log.txt`.
+"""
+
+import argparse
+import fileinput
+import re
+from collections import defaultdict
+
+from tabulate import tabulate
+
+PROF_REGEX = re.compile(r"@@@PROF (\w+)((?: \S+:\d+:[\d.]+)*)")
+
+
+def parse(lines):
+    """ Returns {(type, section): [max, histogram]} summed over all lines """
+    stats = defaultdict(lambda: [0, []])
+    for line in lines:
+        match = PROF_REGEX.search(line)
+        if match is None:
+            continue
+        robot_type = match.group(1)
+        for entry in match.group(2).split():
+            section, max_used, buckets = entry.rsplit(":", 2)
+            stat = stats[(robot_type, section)]
+            stat[0] = max(stat[0], int(max_used))
+            counts = [int(c) for c in buckets.split(".")]
+            if len(stat[1]) < len(counts):
+                stat[1] += [0] * (len(counts) - len(stat[1]))
+            for k, count in enumerate(counts):
+                stat[1][k] += count
+    return stats
+
+
+def percentile(histogram, max_used, p):
+    """ Upper bound on the p-th percentile: bucket k holds [2^(k-1), 2^k) """
+    total = sum(histogram)
+    seen = 0
+    for k, count in enumerate(histogram):
+        seen += count
+        if seen >= p * total:
+            return min((1 << k) - 1, max_used)
+    return max_used
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__)
+    parser.add_argument("logs", nargs="*", help="match logs (stdin if none)")
+    args = parser.parse_args()
+
+    stats = parse(fileinput.input(args.logs))
+    if not stats:
+        print("No @@@PROF lines found: is Profiler.ENABLED on?")
+        return
+
+    data = [["type", "section", "runs", "p50", "p95", "max"]]
+    for (robot_type, section), (max_used, histogram) in sorted(stats.items()):
+        data.append(
+            [
+                robot_type,
+                section,
+                sum(histogram),
+                percentile(histogram, max_used, 0.5),
+                percentile(histogram, max_used, 0.95),
+                max_used,
+            ]
+        )
+    print(tabulate(data, headers="firstrow", tablefmt="presto"))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,123 @@
+package quals;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotType;
+import quals.Communication.Label;
+import quals.utils.ECRegistry;
+
+import static quals.EnlightenmentCenter.ECs;
+import static quals.QueueController.HIGH;
+import static quals.QueueController.influenceMinimum;
+import static quals.Robot.makeMessage;
+import static quals.Robot.rc;
+
+/**
+ * Plans coordinated assaults on enemy ECs. Instead of politicians trickling in and speaking one
+ * at a time into a regenerating EC, the EC sizes a group that flips the target when everyone
+ * speaks in the same round, and gives each politician the strike round and its own slot next to
+ * the target (as a direction from it: the four orthogonal slots fill first, then the diagonals).
+ * <p>
+ * Politicians stage out of the target's sensor range until it's time to close in (see
+ * Politician.State.Assault).
+ */
+public class AssaultPlanner {
+    static final int MIN_GROUP = 2;
+    static final int MAX_GROUP = 8;
+    static final int BUILD_TURNS = 3; // EC build cooldown, roughly
+    static final int STAGING_SLACK = 20; // rounds to gather at the staging point
+    static final int MAX_PREP_ROUNDS = 150; // don't plan assaults we can't afford soon
+    static final int RETRY_ROUNDS = 30; // after the strike, before another assault on the target
+    static final double REGEN_MARGIN = 1.2; // enemy slanderer income we can't see
+    static final int STRIKE_HORIZON = 128; // strike rounds are sent as (round / 4) % 32
+
+    static int target = -1; // registry index of the current target
+    static int strikeRound = -1;
+
+    /**
+     * Plans an assault on the closest enemy EC, and queues its politicians. ECs the enemy took
+     * from us go first: they are in our territory, and were only just flipped. Only one assault
+     * runs at a time, and neutral captures go first.
+     */
+    static void plan() {
+        int round = rc.getRoundNum();
+        if (strikeRound + RETRY_ROUNDS > round || CapturePlanner.pending) return;
+
+        ECRegistry ecs = ECs;
+        MapLocation here = rc.getLocation();
+        int best = -1;
+        boolean bestWasOurs = false;
+        for (int i = 0; i < ecs.size; i++) {
+            if (ecs.teams[i] != rc.getTeam().opponent() || ecs.predicted[i]) continue; // need its influence
+            boolean wasOurs = ecs.wasOnTeam(i, rc.getTeam());
+            if (best == -1 || (wasOurs && !bestWasOurs) || (wasOurs == bestWasOurs
+                    && here.distanceSquaredTo(ecs.locs[i]) < here.distanceSquaredTo(ecs.locs[best]))) {
+                best = i;
+                bestWasOurs = wasOurs;
+            }
+        }
+        if (best == -1) return;
+
+        MapLocation loc = ecs.locs[best];
+        int travel = CapturePlanner.travelTime(here, loc) + STAGING_SLACK;
+        int budget = rc.getInfluence() - influenceMinimum();
+
+        // the smallest group whose politicians we can afford in time
+        for (int size = MIN_GROUP; size <= MAX_GROUP; size++) {
+            int influence = politicianInfluence(best, size, round + size * BUILD_TURNS + travel);
+            int prep = Math.max(size * BUILD_TURNS,
+                    (int) Math.ceil((size * influence - budget) / CapturePlanner.income));
+            if (prep > MAX_PREP_ROUNDS || prep + travel >= STRIKE_HORIZON) continue;
+
+            // waiting for influence gives the enemy more time to regenerate
+            int strike = round + prep + travel;
+            if (prep > size * BUILD_TURNS)
+                influence = politicianInfluence(best, size, strike);
+
+            strike += (4 - strike % 4) % 4; // strike rounds are sent quartered
+            for (int slot = 0; slot < size; slot++) {
+                QueueController.push(RobotType.POLITICIAN, makeMessage(Label.ASSAULT, loc.x % 128, loc.y % 128,
+                        (strike / 4) % 32, slotDir(slot)), 0, influence, HIGH);
+            }
+            target = best;
+            strikeRound = strike;
+            return;
+        }
+    }
+
+    /**
+     * Influence for each politician of a group of the given size so that, speaking in the strike
+     * round, they flip the EC: simulated with the diagonal slots speaking first (their speeches
+     * also reach the orthogonal politicians).
+     */
+    static int politicianInfluence(int i, int size, int strike) {
+        int round = rc.getRoundNum();
+        int conviction = (int) (REGEN_MARGIN * (ECs.estimateInfluence(i, round)
+                + CapturePlanner.passiveIncome(round) * (strike - round)));
+        double buff = rc.getEmpowerFactor(rc.getTeam(), strike - round);
+
+        int influence = EmpowerSimulator.convictionNeeded((conviction + size - 1) / size, 1, buff);
+        while (!flips(i, size, influence, conviction, buff))
+            influence += Math.max(1, influence / 20);
+        return influence;
+    }
+
+    /**
+     * @return the direction (index into Robot.directions) of the slot from the target
+     */
+    static int slotDir(int slot) {
+        return slot < 4 ? 2 * slot : 2 * (slot - 4) + 1;
+    }
+
+    static boolean flips(int i, int size, int influence, int conviction, double buff) {
+        MapLocation loc = ECs.locs[i];
+        EmpowerSimulator.reset();
+        int ec = EmpowerSimulator.add(loc, rc.getTeam().opponent(), RobotType.ENLIGHTENMENT_CENTER, conviction, conviction);
+        for (int slot = size - 1; slot >= 0; slot--) {
+            EmpowerSimulator.add(loc.add(Robot.directions[slotDir(slot)]), rc.getTeam(), RobotType.POLITICIAN,
+                    influence, influence);
+        }
+        for (int speaker = 1; speaker <= size; speaker++)
+            EmpowerSimulator.empower(speaker, EmpowerSimulator.locs[speaker].distanceSquaredTo(loc), buff);
+        return EmpowerSimulator.teams[ec] == rc.getTeam();
+    }
+}
@@ -1,8 +1,12 @@
 package quals;
 
 import battlecode.common.GameActionException;
+import battlecode.common.MapLocation;
+import quals.utils.BidEstimator;
 
+import static quals.EnlightenmentCenter.ECs;
 import static quals.QueueController.influenceMinimum;
+import static quals.Robot.random;
 import static quals.Robot.rc;
 
 public class BidController {
@@ -17,6 +21,23 @@ public class BidController {
     static int winsNeeded = 751;
     static boolean lostLast = false;
 
+    // posterior over the opponent's bid, and whether our last bid can be fed into it
+    static BidEstimator estimator = new BidEstimator();
+    static boolean bidPlaced = false;
+    // win probabilities to aim for (not final so test/bidsim can sweep them)
+    static double KEEP_UP_TARGET = 0.6;
+    static double SCALE_UP_TARGET = 0.85;
+    static double ENDGAME_TARGET = 0.95;
+
+    // influence we did not put into duplicate bids because another EC was bidding for the team
+    static int influenceSaved = 0;
+
+    // rotation slots of other ECs that seem to go unbid (our view of the friendly ECs can differ from theirs)
+    static final int TAKEOVER_LOSSES = 2; // losses in a row in a slot we left to others, before we bid in it
+    static final int RECHECK_ROUNDS = 100; // give slots we took over back, in case their EC bids after all
+    static int[] slotLosses = new int[1];
+    static int lastSlot = -1; // the previous round's slot, if we left it to another EC
+
     public void update() throws GameActionException {
         // information upkeep
         lostLast = rc.getRoundNum() != 0 && rc.getTeamVotes() == prevTeamVotes;
@@ -26,6 +47,20 @@ public class BidController {
         }
         wonInARow = lostLast ? 0 : wonInARow + 1;
 
+        if (lastSlot != -1) {
+            if (lostLast) slotLosses[lastSlot]++;
+            else if (!bidPlaced) slotLosses[lastSlot] = 0; // its EC bids
+        }
+        lastSlot = -1;
+        if (rc.getRoundNum() % RECHECK_ROUNDS == 0) slotLosses = new int[slotLosses.length];
+
+        if (bidPlaced) {
+            estimator.observe(prevBid, !lostLast);
+            CapturePlanner.noteSpent(lostLast ? (prevBid + 1) / 2 : prevBid);
+        }
+        bidPlaced = false;
+        estimator.decay();
+
         winsNeeded = 751 - rc.getTeamVotes();
         proportionNeeded = winsNeeded / (1500.0 - rc.getRoundNum());
 
@@ -36,10 +71,16 @@ public class BidController {
     public void bid() throws GameActionException {
         // make the next bid
         int bid = Math.min(rc.getInfluence(), state.suggestBid());
+        if (bid != 0 && rc.getRoundNum() > 150 && !isTeamBidder()) {
+            // only one bid can win- had we lost alongside the bidder we'd have paid half of ours
+            influenceSaved += (bid + 1) / 2;
+            bid = 0;
+        }
         prevBid = bid;
         prevTeamVotes = rc.getTeamVotes();
         if (bid != 0 && rc.getRoundNum() > 150) {
             rc.bid(bid);
+            bidPlaced = true;
         }
     }
 
@@ -73,23 +114,13 @@ public class BidController {
         OnABreak, GiveUp,
         KeepUp {
             int suggestBid() {
-                int bid = Math.max(prevBid, 2);
-                if (lostLast)
-                    bid += (int) (Math.random() * 2) + 1;
-                else if (wonInARow >= 4 && proportionNeeded < 0.55)
-                    bid /= 2;
-                return Math.min(bid, maxBid());
+                return Math.min(estimator.smallestBidFor(KEEP_UP_TARGET), maxBid());
             }
         },
         ScaleUp {
             @Override
             int suggestBid() {
-                int bid = Math.max(prevBid, 2);
-                if (lostLast)
-                    bid *= 2;
-                else if (wonInARow >= 4 && proportionNeeded < 0.55)
-                    bid /= 2;
-                return Math.min(bid, maxBid());
+                return Math.min(estimator.smallestBidFor(SCALE_UP_TARGET), maxBid());
             }
         },
         Endgame {
@@ -97,8 +128,9 @@ public class BidController {
             int suggestBid() {
                 int predictedInf = rc.getInfluence() +
                         (int) (7745 - 2.0 * Math.pow(rc.getRoundNum(), 1.5) / 15);
-                if (Math.random() < proportionNeeded + 0.1)
-                    return Math.min(maxBid(), predictedInf / winsNeeded);
+                if (random() < proportionNeeded + 0.1)
+                    return Math.min(maxBid(), Math.min(predictedInf / winsNeeded,
+                            estimator.smallestBidFor(ENDGAME_TARGET)));
                 else
                     return 0;
             }
@@ -110,6 +142,35 @@ public class BidController {
     }
 
     /* Helper Functions */
+
+    /**
+     * ECs take turns bidding for the team, round-robin over every friendly EC we've
+     * heard of (ordered by location, so all ECs with the same knowledge agree).
+     * <p>
+     * ECs that know different sets of friendly ECs can leave a slot to each other, and then
+     * nobody bids in it. So we also bid in another EC's slot once the team lost there
+     * TAKEOVER_LOSSES times in a row without us.
+     *
+     * @return whether this EC should bid this round
+     */
+    static boolean isTeamBidder() {
+        if (ECs.size == 0) return true;
+        MapLocation me = rc.getLocation();
+        int friendly = 1;
+        int rank = 0;
+        for (int i = 0; i < ECs.size; i++) {
+            if (ECs.teams[i] != rc.getTeam() || ECs.locs[i].equals(me)) continue;
+            friendly++;
+            if (ECs.locs[i].x < me.x || (ECs.locs[i].x == me.x && ECs.locs[i].y < me.y))
+                rank++;
+        }
+        int slot = rc.getRoundNum() % friendly;
+        if (slot == rank) return true;
+        if (slotLosses.length != friendly) slotLosses = new int[friendly]; // new view, new rotation
+        lastSlot = slot;
+        return slotLosses[slot] >= TAKEOVER_LOSSES;
+    }
+
     static int maxBid() {
         int round = rc.getRoundNum();
         int factor = round < 300 ? 15 : 7;
@@ -0,0 +1,72 @@
+package quals;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotType;
+import quals.Communication.Label;
+
+import static quals.EnlightenmentCenter.ECs;
+import static quals.QueueController.HIGH;
+import static quals.Robot.makeMessage;
+import static quals.Robot.rc;
+
+/**
+ * Blocks the spawn tiles of the closest enemy EC with muckrakers: one per adjacent tile, each
+ * assigned its slot through a BLOCKADE message. Every slot whose muckraker died gets exactly
+ * one replacement queued.
+ * <p>
+ * Slots aren't refilled while we are assaulting the same EC, and blockaders step back from
+ * the EC while they see one of our politicians flag ATTACKING, so our politicians can get in.
+ */
+public class BlockadePlanner {
+    static final int START_ROUND = 150; // economy first
+
+    static int target = -1; // registry index of the blockaded EC
+    static int[] slotIDs = {-1, -1, -1, -1, -1, -1, -1, -1};
+    static boolean[] slotQueued = new boolean[8];
+
+    /**
+     * Picks the blockade target and queues replacements for its open slots.
+     */
+    static void plan() {
+        int round = rc.getRoundNum();
+        if (round < START_ROUND) return;
+
+        if (target == -1 || ECs.teams[target] != rc.getTeam().opponent()) {
+            target = -1;
+            MapLocation here = rc.getLocation();
+            for (int i = 0; i < ECs.size; i++) {
+                if (ECs.teams[i] != rc.getTeam().opponent()) continue;
+                if (target == -1 || here.distanceSquaredTo(ECs.locs[i]) < here.distanceSquaredTo(ECs.locs[target]))
+                    target = i;
+            }
+            if (target == -1) return;
+            for (int slot = 0; slot < 8; slot++) {
+                slotIDs[slot] = -1; // muckrakers of an old blockade get released when it flips
+                slotQueued[slot] = false; // ones still queued for it are ignored by noteBuilt
+            }
+        }
+        if (AssaultPlanner.target == target && round <= AssaultPlanner.strikeRound + AssaultPlanner.RETRY_ROUNDS)
+            return;
+
+        MapLocation loc = ECs.locs[target];
+        for (int slot = 0; slot < 8; slot++) {
+            if (slotQueued[slot]) continue;
+            if (slotIDs[slot] != -1 && rc.canGetFlag(slotIDs[slot])) continue;
+            QueueController.push(RobotType.MUCKRAKER, makeMessage(Label.BLOCKADE, loc.x % 128, loc.y % 128, slot), 0.0, 1, HIGH);
+            slotQueued[slot] = true;
+            slotIDs[slot] = -1;
+        }
+    }
+
+    /**
+     * Records the muckraker built for a slot. Called by QueueController after the build, with
+     * the location from the BLOCKADE message (mod 128), and -1 if it died right away.
+     */
+    static void noteBuilt(int xMod, int yMod, int slot, int id) {
+        if (target == -1) return;
+        MapLocation loc = ECs.locs[target];
+        if (loc.x % 128 != xMod || loc.y % 128 != yMod) return; // queued for an old target
+        slotIDs[slot] = id;
+        slotQueued[slot] = false;
+    }
+}
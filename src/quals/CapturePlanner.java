@@ -0,0 +1,164 @@
+package quals;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotType;
+import battlecode.common.Team;
+import quals.Communication.Label;
+import quals.utils.ECRegistry;
+
+import static quals.EnlightenmentCenter.ECs;
+import static quals.QueueController.HIGH;
+import static quals.QueueController.influenceMinimum;
+import static quals.Robot.makeMessage;
+import static quals.Robot.rc;
+
+/**
+ * Plans the capture of every known neutral EC at once, rather than greedily sending one
+ * politician at the cheapest + closest target.
+ * <p>
+ * Using the EC's income forecast, each neutral gets an estimated capture round: when we can
+ * afford its politician, plus the politician's travel time. Targets are taken in order of
+ * capture round (so cheap, close ECs start paying out first), and every target we can
+ * already afford gets its politician queued immediately, so captures run in parallel.
+ */
+public class CapturePlanner {
+    static final int TRAVEL_TURNS_PER_TILE = 2; // politicians move about every other round
+    static final int CLAIM_SLACK = 50; // extra rounds before giving up on a sent politician
+    static final int STALE_ROUNDS = 100; // neutrals unconfirmed for longer may have been taken
+    static final double INCOME_SMOOTHING = 0.1;
+
+    // per registry entry: round until which a politician is on its way (or queued, for good)
+    static final int QUEUED = Integer.MAX_VALUE;
+    static int[] claimedUntil = new int[0];
+
+    // income forecast
+    static int lastInfluence = -1;
+    static int spentSinceLast = 0;
+    static double income = 1;
+
+    // the current plan: registry indices in capture order
+    static int[] order = new int[0];
+    static int planned = 0;
+    static boolean pending = false; // whether any neutral is being (or will be) captured by us
+
+    /**
+     * Records influence leaving the EC (builds, bids) so it isn't mistaken for lost income.
+     */
+    static void noteSpent(int amount) {
+        spentSinceLast += amount;
+    }
+
+    /**
+     * Updates the income forecast. Call once per turn.
+     */
+    static void update() {
+        int influence = rc.getInfluence();
+        if (lastInfluence >= 0) {
+            int gained = influence - lastInfluence + spentSinceLast;
+            income = Math.max(passiveIncome(rc.getRoundNum()),
+                    (1 - INCOME_SMOOTHING) * income + INCOME_SMOOTHING * gained);
+        }
+        lastInfluence = influence;
+        spentSinceLast = 0;
+    }
+
+    /**
+     * Re-plans the captures and queues a politician for every target we can afford now.
+     * Claimed targets are skipped, so this is safe to call every turn.
+     */
+    static void plan() {
+        ECRegistry ecs = ECs;
+        if (claimedUntil.length < ecs.locs.length) {
+            int[] grown = new int[ecs.locs.length];
+            System.arraycopy(claimedUntil, 0, grown, 0, claimedUntil.length);
+            claimedUntil = grown;
+            order = new int[ecs.locs.length];
+        }
+
+        int round = rc.getRoundNum();
+        MapLocation here = rc.getLocation();
+        int budget = rc.getInfluence() - influenceMinimum();
+        pending = false;
+
+        // candidates: neutrals that nobody is on the way to
+        planned = 0;
+        int candidates = 0;
+        for (int i = 0; i < ecs.size; i++) {
+            if (ecs.teams[i] != Team.NEUTRAL || ecs.influence[i] < 0) continue; // can't size it yet
+            if (claimedUntil[i] > round) {
+                pending = true;
+                continue;
+            }
+            order[candidates++] = i;
+        }
+
+        // greedily take the target with the earliest capture round
+        int t = round;
+        while (candidates > 0) {
+            int bestSlot = -1;
+            int bestCapture = Integer.MAX_VALUE;
+            int bestReady = 0;
+            for (int slot = planned; slot < planned + candidates; slot++) {
+                int i = order[slot];
+                int cost = politicianInfluence(i);
+                int wait = cost <= budget ? 0 : (int) Math.ceil((cost - budget) / income);
+                int capture = t + wait + travelTime(here, ecs.locs[i]);
+                int staleness = ecs.staleness(i, round);
+                if (staleness > STALE_ROUNDS)
+                    capture += staleness - STALE_ROUNDS;
+                if (capture < bestCapture) {
+                    bestCapture = capture;
+                    bestSlot = slot;
+                    bestReady = t + wait;
+                }
+            }
+
+            int i = order[bestSlot];
+            order[bestSlot] = order[planned];
+            order[planned++] = i;
+            candidates--;
+
+            int cost = politicianInfluence(i);
+            budget += (int) (income * (bestReady - t)) - cost;
+            if (bestReady == round) {
+                // affordable now: send a politician
+                QueueController.push(RobotType.POLITICIAN,
+                        makeMessage(Label.CAPTURE, ecs.locs[i].x % 128, ecs.locs[i].y % 128), 0, cost, HIGH);
+                claimedUntil[i] = QUEUED; // until noteBuilt
+            }
+            pending = true;
+            t = bestReady;
+        }
+    }
+
+    /**
+     * Starts the claim of the politician built for a neutral, or drops it if the politician
+     * never got built or died right away. Called by QueueController, with the location from
+     * the CAPTURE message (mod 128).
+     */
+    static void noteBuilt(int xMod, int yMod, boolean built) {
+        int i = ECs.indexOf(new MapLocation(xMod, yMod));
+        if (i == -1 || i >= claimedUntil.length) return;
+        claimedUntil[i] = built ? rc.getRoundNum() + travelTime(rc.getLocation(), ECs.locs[i]) + CLAIM_SLACK : 0;
+    }
+
+    /**
+     * Politician influence needed to flip a neutral EC: enough to take its (upper bound)
+     * conviction with our buff when the politician arrives, plus a margin for other units
+     * that end up sharing the speech.
+     */
+    static int politicianInfluence(int i) {
+        int conviction = ECs.estimateInfluence(i, rc.getRoundNum());
+        double buff = rc.getEmpowerFactor(rc.getTeam(), travelTime(rc.getLocation(), ECs.locs[i]));
+        return EmpowerSimulator.convictionNeeded(conviction, 1, buff) + conviction / 10 + 2;
+    }
+
+    static int travelTime(MapLocation from, MapLocation to) {
+        int tiles = Math.max(Math.abs(from.x - to.x), Math.abs(from.y - to.y)) - 1;
+        return Math.max(tiles, 0) * TRAVEL_TURNS_PER_TILE;
+    }
+
+    static int passiveIncome(int round) {
+        return (int) Math.ceil(0.2 * Math.sqrt(round));
+    }
+}
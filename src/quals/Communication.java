@@ -1,7 +1,7 @@
 package quals;
 public class Communication {
     public enum Label {
-        EXPLORE, HIDE, CURRENTLY_DEFENDING, UNCLOG, SLANDERER, SCOUT, ATTACKING, OUR_EC, SLANDERERS_SEEN, EC_UPDATE, ENEMY_EC, NEUTRAL_EC, DANGER_INFO
+        EXPLORE, HIDE, CURRENTLY_DEFENDING, UNCLOG, SLANDERER, SCOUT, ATTACKING, MAP_EDGE, OUR_EC, SLANDERERS_SEEN, CAPTURE, EXPLORE_SECTOR, BLOCKADE, EC_UPDATE, ENEMY_EC, NEUTRAL_EC, DANGER_INFO, INTERCEPT, ASSAULT
     }
     public static class Message {
         Label label;
@@ -14,7 +14,7 @@ public class Communication {
     public static Message decode(int flag) {
         flag ^= 14360927;
         flag--;
-        int[] data = new int[3];
+        int[] data = new int[4];
         Label label;
         int acc;
         if (flag % 16777216 == 0) {
@@ -37,6 +37,12 @@ public class Communication {
             data[0] = acc % 256;
             acc = acc / 256;
             data[1] = acc % 2;
+        } else if (flag % 32768 == 8192) {
+            label = Label.MAP_EDGE;
+            acc = flag / 32768;
+            data[0] = acc % 4;
+            acc = acc / 4;
+            data[1] = acc % 128;
         } else if (flag % 1024 == 512) {
             label = Label.OUR_EC;
             acc = flag / 1024;
@@ -49,6 +55,26 @@ public class Communication {
             data[0] = acc % 128;
             acc = acc / 128;
             data[1] = acc % 128;
+        } else if (flag % 1024 == 768) {
+            label = Label.CAPTURE;
+            acc = flag / 1024;
+            data[0] = acc % 128;
+            acc = acc / 128;
+            data[1] = acc % 128;
+        } else if (flag % 1024 == 128) {
+            label = Label.EXPLORE_SECTOR;
+            acc = flag / 1024;
+            data[0] = acc % 128;
+            acc = acc / 128;
+            data[1] = acc % 128;
+        } else if (flag % 128 == 64) {
+            label = Label.BLOCKADE;
+            acc = flag / 128;
+            data[0] = acc % 128;
+            acc = acc / 128;
+            data[1] = acc % 128;
+            acc = acc / 128;
+            data[2] = acc % 8;
         } else if (flag % 64 == 32) {
             label = Label.EC_UPDATE;
             acc = flag / 64;
@@ -81,6 +107,24 @@ public class Communication {
             data[1] = acc % 128;
             acc = acc / 128;
             data[2] = acc % 32;
+        } else if (flag % 8 == 4) {
+            label = Label.INTERCEPT;
+            acc = flag / 8;
+            data[0] = acc % 128;
+            acc = acc / 128;
+            data[1] = acc % 128;
+            acc = acc / 128;
+            data[2] = acc % 128;
+        } else if (flag % 4 == 2) {
+            label = Label.ASSAULT;
+            acc = flag / 4;
+            data[0] = acc % 128;
+            acc = acc / 128;
+            data[1] = acc % 128;
+            acc = acc / 128;
+            data[2] = acc % 32;
+            acc = acc / 32;
+            data[3] = acc % 8;
         } else {
             throw new RuntimeException("Attempting to decode an invalid flag");
         }
@@ -102,10 +146,18 @@ public class Communication {
                 return 14360927 ^ (1 + (message.data[0] * 1) * 2097152 + 1048576);
             case ATTACKING:
                 return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 256) * 32768 + 16384);
+            case MAP_EDGE:
+                return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 4) * 32768 + 8192);
             case OUR_EC:
                 return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128) * 1024 + 512);
             case SLANDERERS_SEEN:
                 return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128) * 1024 + 256);
+            case CAPTURE:
+                return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128) * 1024 + 768);
+            case EXPLORE_SECTOR:
+                return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128) * 1024 + 128);
+            case BLOCKADE:
+                return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128 + message.data[2] * 16384) * 128 + 64);
             case EC_UPDATE:
                 return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128 + message.data[2] * 16384) * 64 + 32);
             case ENEMY_EC:
@@ -114,6 +166,10 @@ public class Communication {
                 return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128 + message.data[2] * 16384) * 64 + 48);
             case DANGER_INFO:
                 return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128 + message.data[2] * 16384) * 32 + 8);
+            case INTERCEPT:
+                return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128 + message.data[2] * 16384) * 8 + 4);
+            case ASSAULT:
+                return 14360927 ^ (1 + (message.data[0] * 1 + message.data[1] * 128 + message.data[2] * 16384 + message.data[3] * 524288) * 4 + 2);
         }
         throw new RuntimeException("Attempting to encode an invalid message");
     }
@@ -0,0 +1,138 @@
+package quals;
+
+import battlecode.common.GameConstants;
+import battlecode.common.MapLocation;
+import battlecode.common.RobotInfo;
+import battlecode.common.RobotType;
+import battlecode.common.Team;
+
+/**
+ * Simulates speeches as the engine runs them, including several politicians speaking one after
+ * the other on the same targets.
+ * <p>
+ * <b>Usage:</b>
+ * reset(), then add() every unit that could be affected (and the speakers). Call empower() for
+ * each speech in order: it updates the units' teams and convictions as the engine would, and
+ * returns the value of the speech.
+ * <p>
+ * Model: the speaker's conviction minus the tax is split evenly over every unit in range, and
+ * each share is buffed by the team's empower factor (see received()) and rounded down. Friendly
+ * units are healed up to their influence, friendly ECs keep all of it. Enemy and neutral units
+ * lose conviction, and are converted once it goes negative; converted ECs keep the leftover as
+ * influence.
+ */
+public class EmpowerSimulator {
+    static final int MAX_UNITS = 48;
+    static final double FLIP_VALUE = 500; // an EC is worth far more than its conviction
+
+    static int size = 0;
+    static MapLocation[] locs = new MapLocation[MAX_UNITS];
+    static Team[] teams = new Team[MAX_UNITS];
+    static RobotType[] types = new RobotType[MAX_UNITS];
+    static int[] conviction = new int[MAX_UNITS];
+    static int[] influence = new int[MAX_UNITS];
+    static boolean[] spoke = new boolean[MAX_UNITS]; // speakers are gone after their speech
+
+    static void reset() {
+        size = 0;
+    }
+
+    /**
+     * @return the index of the unit, or -1 if the simulation is full
+     */
+    static int add(MapLocation loc, Team team, RobotType type, int unitConviction, int unitInfluence) {
+        if (size == MAX_UNITS) return -1;
+        locs[size] = loc;
+        teams[size] = team;
+        types[size] = type;
+        conviction[size] = unitConviction;
+        influence[size] = unitInfluence;
+        spoke[size] = false;
+        return size++;
+    }
+
+    static int add(RobotInfo info) {
+        return add(info.getLocation(), info.getTeam(), info.getType(), info.getConviction(), info.getInfluence());
+    }
+
+    /**
+     * Simulates a speech by the given politician.
+     *
+     * @param speaker the index of the speaking politician
+     * @param radius  the speech's squared radius
+     * @param buff    the speaker team's empower factor in the round of the speech
+     * @return the value of the speech to the speaker's team (conviction removed from enemies,
+     * healed or given to friends, plus FLIP_VALUE for every EC taken). Does not subtract the
+     * speaker's own conviction.
+     */
+    static double empower(int speaker, int radius, double buff) {
+        Team team = teams[speaker];
+        MapLocation center = locs[speaker];
+        spoke[speaker] = true;
+
+        int recipients = 0;
+        for (int i = 0; i < size; i++)
+            if (!spoke[i] && center.isWithinDistanceSquared(locs[i], radius))
+                recipients++;
+        int total = conviction[speaker] - GameConstants.EMPOWER_TAX;
+        if (recipients == 0 || total <= 0) return 0;
+        double split = (double) total / recipients;
+
+        double value = 0;
+        for (int i = 0; i < size; i++) {
+            if (spoke[i] || !center.isWithinDistanceSquared(locs[i], radius)) continue;
+            int share = received(split, types[i], teams[i] == team, conviction[i], buff);
+            if (teams[i] == team) {
+                if (types[i] == RobotType.ENLIGHTENMENT_CENTER) {
+                    conviction[i] += share;
+                    influence[i] += share;
+                    value += share;
+                } else {
+                    int healed = Math.max(0, Math.min(share, influence[i] - conviction[i]));
+                    conviction[i] += healed;
+                    value += healed;
+                }
+            } else if (share <= conviction[i]) {
+                conviction[i] -= share;
+                value += share;
+            } else {
+                int leftover = share - conviction[i];
+                value += conviction[i];
+                teams[i] = team;
+                if (types[i] == RobotType.ENLIGHTENMENT_CENTER) {
+                    conviction[i] = leftover;
+                    influence[i] = leftover;
+                    value += FLIP_VALUE + leftover;
+                } else {
+                    conviction[i] = Math.min(leftover, influence[i]);
+                    value += conviction[i];
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * The conviction a unit gets from its split of a speech, as the engine buffs it: not at all
+     * for friendly ECs, and for other ECs only up to the point where they flip (the rest of the
+     * split is given unbuffed). Other units get the whole split buffed.
+     */
+    static int received(double split, RobotType type, boolean friendly, int unitConviction, double buff) {
+        if (type != RobotType.ENLIGHTENMENT_CENTER) return (int) (split * buff);
+        if (friendly) return (int) split;
+        double toFlip = unitConviction / buff;
+        return (int) (split <= toFlip ? split * buff : unitConviction + split - toFlip);
+    }
+
+    /**
+     * The smallest conviction a politician needs to take an enemy or neutral EC with the given
+     * conviction, when its speech is split over the given number of units.
+     */
+    static int convictionNeeded(int targetConviction, int recipients, double buff) {
+        int needed = (int) Math.ceil(targetConviction * recipients / buff) + GameConstants.EMPOWER_TAX;
+        while (received((double) (needed - GameConstants.EMPOWER_TAX) / recipients, RobotType.ENLIGHTENMENT_CENTER,
+                false, targetConviction, buff) <= targetConviction)
+            needed++;
+        return needed;
+    }
+}
@@ -3,7 +3,11 @@ package quals;
 import battlecode.common.*;
 import quals.Communication.Label;
 import quals.Communication.Message;
+import quals.utils.ECRegistry;
 import quals.utils.IterableIdSet;
+import quals.utils.NavHistory;
+import quals.utils.Profiler;
+import quals.utils.SlandererHeatmap;
 
 import static quals.Communication.decode;
 import static quals.Communication.encode;
@@ -27,11 +31,11 @@ public class EnlightenmentCenter extends Robot {
     static boolean newSafeDir = false;
 
     // Non-self ECs that have been found so far
-    static MapLocation[] ECLocs = new MapLocation[11];
-    static Team[] ECTeam = new Team[11];
-    static int[] ECInfluence = {-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1};
-    static int ECFound = 0;
+    static ECRegistry ECs = new ECRegistry();
     static int broadcastECIndex = 0;
+    static int broadcastEdge = 0;
+    static int[] edgeSentRound = new int[4]; // by NavHistory edge
+    static int lastBuildRound = -1;
 
     static boolean underAttack = false;
 
@@ -41,14 +45,17 @@ public class EnlightenmentCenter extends Robot {
     static int unclogID = -1;
     static boolean unclogAdded = false;
 
-    // Where we last saw enemy slanderers:
-    MapLocation enemySlandererLocation;
+    // Where enemy slanderers have been seen
+    static SlandererHeatmap slandererHeat = new SlandererHeatmap();
 
     @Override
     void onAwake() throws GameActionException {
         QueueController.init(); // Initialize the queue controller!
+        NavHistory.init();
+        NavHistory.update(); // map edges within sight
 
-        for (RobotInfo bot : rc.senseNearbyRobots()) { // Find nearby enlightenment centers
+        senseOnce();
+        for (RobotInfo bot : nearby) { // Find nearby enlightenment centers
             if (bot.getType() != RobotType.ENLIGHTENMENT_CENTER) continue;
             addOrUpdateEC(bot.getLocation(), bot.getTeam(), bot.getInfluence());
         }
@@ -70,16 +77,19 @@ public class EnlightenmentCenter extends Robot {
         System.out.println("Influence: " + rc.getInfluence());
         System.out.println("Production state: " + state);
         System.out.println("Bidding state: " + BidController.state);
+        System.out.println("Bid influence saved: " + BidController.influenceSaved);
+        if (AssaultPlanner.target != -1)
+            System.out.println("Assault on " + ECs.locs[AssaultPlanner.target] + " at round " + AssaultPlanner.strikeRound);
         System.out.println("Safest Dir: " + safestDir());
         for (int i = 0; i < 8; i++) {
             if (muckrakersInDir[i] < 1) continue;
             System.out.println("MUCKRAKER DIRECTION: " + fromOrdinal(i));
         }
-        for (int i = 0; i < ECFound; i++) {
+        for (int i = 0; i < ECs.size; i++) {
             String teamMessage = "Neutral";
-            if (ECTeam[i] == rc.getTeam()) teamMessage = "Our";
-            else if (ECTeam[i] == rc.getTeam().opponent()) teamMessage = "Enemy";
-            System.out.println(teamMessage + " EC @ " + ECLocs[i]);
+            if (ECs.teams[i] == rc.getTeam()) teamMessage = "Our";
+            else if (ECs.teams[i] == rc.getTeam().opponent()) teamMessage = "Enemy";
+            System.out.println(teamMessage + " EC @ " + ECs.locs[i] + (ECs.predicted[i] ? " (predicted round " : " (seen round ") + ECs.lastSeen[i] + ")");
         }
         QueueController.logNext();
     }
@@ -88,8 +98,13 @@ public class EnlightenmentCenter extends Robot {
     void onUpdate() throws GameActionException {
         super.onUpdate();
         boolean tracked = QueueController.trackLastBuiltUnit();
+        CapturePlanner.update();
 
+        if (Profiler.ENABLED) Profiler.start(Profiler.PROCESS_FLAGS);
         processFlags();
+        if (Profiler.ENABLED) Profiler.stop(Profiler.PROCESS_FLAGS);
+        ExplorePlanner.update();
+        InterceptPlanner.plan();
         transition();
         urgentQueueing();
 
@@ -100,25 +115,32 @@ public class EnlightenmentCenter extends Robot {
         }
         if (!newSafeDir)
             built = QueueController.tryUnitBuild();
+        if (built) lastBuildRound = rc.getRoundNum();
 
         // Consider bidding
         bidController.update();
-        if (!(underAttack && rc.senseNearbyRobots(2, rc.getTeam().opponent()).length < 8))
+        if (!(underAttack && Sensing.enemiesWithin(2) < 8))
             bidController.bid();
 
+        Message intercept = InterceptPlanner.nextMessage();
         if (!tracked && !built) {
-            if (enemySlandererLocation == null) {
-                rc.setFlag(encode(makeUpdateMessage()));
+            Message message = null; // a new safe direction goes first: builds wait for it
+            if (!newSafeDir) {
+                message = intercept; // then every other turn a hunt, and every fourth a map edge
+                if (message == null && rc.getRoundNum() % 2 == 1 && (message = makeHuntMessage()) != null)
+                    claimHunt(message);
+                else if (message == null && rc.getRoundNum() % 4 == 0) message = makeEdgeMessage();
+            }
+            if (message == null) {
+                message = makeUpdateMessage();
                 newSafeDir = false;
-            } else {
-                flagMessage(Label.SLANDERERS_SEEN, enemySlandererLocation.x % 128, enemySlandererLocation.y % 128);
-                enemySlandererLocation = null;
             }
+            rc.setFlag(encode(message));
         }
 
         // End turn.
-        if (rc.getRoundNum() % 25 == 0) lowPriorityLogging();
-        Clock.yield();
+        if (rc.getRoundNum() % 25 == 0 && canAfford(LOGGING_COST)) lowPriorityLogging();
+        endTurn();
     }
 
     /* Production and Stimulus Logic */
@@ -139,35 +161,24 @@ public class EnlightenmentCenter extends Robot {
             void refillQueue() {
                 QueueController.push(RobotType.SLANDERER, makeMessage(Label.EXPLORE), 0.9, 85, MED);
                 QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0.05, 17, MED);
-
-                int best = getBestNeutralEC();
-                if (best != -1) {
-                    int bestInfluence = ECInfluence[best] + GameConstants.EMPOWER_TAX;
-                    if (bestInfluence < rc.getInfluence()) {
-                        QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0.8, bestInfluence, HIGH);
-                    }
-                }
             }
         },
         MidGame {
             @Override
             void refillQueue() {
-                QueueController.push(RobotType.MUCKRAKER, makeMessage(Label.EXPLORE), 0.0, 1, MED);
+                QueueController.push(RobotType.MUCKRAKER, makeMuckrakerMessage(), 0.0, 1, MED);
 
-                int best = getBestNeutralEC();
-                if (best != -1) {
-                    int bestInfluence = ECInfluence[best] + GameConstants.EMPOWER_TAX;
-                    if (bestInfluence < rc.getInfluence()) {
-                        QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0.8, bestInfluence, HIGH);
+                if (!CapturePlanner.pending) { // otherwise our influence is going to neutral captures
+                    if (rc.getInfluence() > 1000) {
+                        QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0.8, 20, MED);
+                    } else {
+                        QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0, 20, MED);
                     }
-                } else if (rc.getInfluence() > 1000) {
-                    QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0.8, 20, MED);
-                } else {
-                    QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0, 20, MED);
                 }
 
                 QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0, 20, MED);
-                QueueController.pushMany(RobotType.MUCKRAKER, makeMessage(Label.EXPLORE), 0.0, 1, MED, 2);
+                QueueController.push(RobotType.MUCKRAKER, makeMuckrakerMessage(), 0.0, 1, MED);
+                QueueController.push(RobotType.MUCKRAKER, makeMuckrakerMessage(), 0.0, 1, MED);
                 QueueController.pushMany(RobotType.SLANDERER, makeUpdateMessage(), 0.5, 130, MED, 2);
 
             }
@@ -178,7 +189,7 @@ public class EnlightenmentCenter extends Robot {
                 QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), rc.getInfluence() > 1000 ? 0.8 : 0.5, 20, MED);
                 QueueController.push(RobotType.SLANDERER, makeUpdateMessage(), 0.5, 130, MED);
                 QueueController.push(RobotType.POLITICIAN, makeMessage(Label.EXPLORE), 0.1, 20, MED);
-                QueueController.push(RobotType.MUCKRAKER, makeMessage(Label.EXPLORE), 0.0, 1, MED);
+                QueueController.push(RobotType.MUCKRAKER, makeMuckrakerMessage(), 0.0, 1, MED);
             }
         };
 
@@ -187,6 +198,9 @@ public class EnlightenmentCenter extends Robot {
     }
 
     void urgentQueueing() throws GameActionException {
+        CapturePlanner.plan();
+        AssaultPlanner.plan();
+        BlockadePlanner.plan();
         if (state != State.EarlyGame)
             unclog();
         return;
@@ -203,6 +217,9 @@ public class EnlightenmentCenter extends Robot {
     }
 
     static final int MAX_IDS_TO_PROCESS_IN_TURN = 75;
+    static final int TURN_RESERVE = 6000; // bytecodes the rest of the turn needs after reading flags
+    static final int LOGGING_COST = 3000;
+    static final int SECTOR_COST = 4000; // ExplorePlanner.nextSector, worst case
     static int cursor = 0;
 
     void processFlags() throws GameActionException {
@@ -212,7 +229,9 @@ public class EnlightenmentCenter extends Robot {
 
         if (trackedIds.getSize() == 0) return;
 
-        for (int j = 0; j < Math.min(MAX_IDS_TO_PROCESS_IN_TURN, trackedIds.getSize()); j++) {
+        int j = 0;
+        for (; j < Math.min(MAX_IDS_TO_PROCESS_IN_TURN, trackedIds.getSize()); j++) {
+            if (!canAfford(TURN_RESERVE)) break; // the rest resumes from the cursor next turn
             int index = (cursor + j) % trackedIds.getSize();
             int id = trackedIds.indexToID(index * 5 + 1);
 
@@ -229,6 +248,10 @@ public class EnlightenmentCenter extends Robot {
             switch (message.label) {
                 case ENEMY_EC:
                     MapLocation enemyECLoc = getLocFromMessage(message.data[0], message.data[1]);
+                    if (message.data[2] == 0) { // our twin, from the map's symmetry (see Symmetry)
+                        if (!wasANeutralEC) ECs.predict(enemyECLoc, rc.getTeam().opponent(), rc.getRoundNum());
+                        break;
+                    }
                     addOrUpdateEC(enemyECLoc, rc.getTeam().opponent(), (int) Math.pow(2, message.data[2]));
                     break;
 
@@ -244,6 +267,9 @@ public class EnlightenmentCenter extends Robot {
 
                 case DANGER_INFO:
                     MapLocation dangerLoc = getLocFromMessage(message.data[0], message.data[1]);
+                    ExplorePlanner.noteVisit(dangerLoc);
+                    if (message.data[2] > 0)
+                        InterceptPlanner.noteDanger(dangerLoc);
                     if (dangerLoc.isWithinDistanceSquared(rc.getLocation(), 9))
                         continue;
                     int relevant = rc.getLocation().directionTo(dangerLoc).ordinal();
@@ -256,41 +282,74 @@ public class EnlightenmentCenter extends Robot {
                     }
                     break;
 
+                case MAP_EDGE:
+                    NavHistory.setEdge(message.data[0], getEdgeFromMessage(message.data[0], message.data[1]));
+                    break;
+
                 case SLANDERERS_SEEN:
-                    enemySlandererLocation = getLocFromMessage(message.data[0], message.data[1]);
+                    slandererHeat.addSighting(message.data[0], message.data[1], rc.getRoundNum());
                     break;
             }
         }
         if (trackedIds.getSize() != 0)
-            cursor = (cursor + Math.min(MAX_IDS_TO_PROCESS_IN_TURN, trackedIds.getSize())) % trackedIds.getSize();
+            cursor = (cursor + j) % trackedIds.getSize();
     }
 
     /* Helpers and Utilities */
 
     static Message makeUpdateMessage() {
         MapLocation loc = rc.getLocation();
-        for (int i = 0; i < ECFound; i++) {
-            broadcastECIndex = (broadcastECIndex + 1) % ECFound;
-            if (ECTeam[broadcastECIndex] != rc.getTeam()) {
-                loc = ECLocs[broadcastECIndex];
+        for (int i = 0; i < ECs.size; i++) {
+            broadcastECIndex = (broadcastECIndex + 1) % ECs.size;
+            if (ECs.teams[broadcastECIndex] != rc.getTeam()) {
+                loc = ECs.locs[broadcastECIndex];
                 break;
             }
         }
         return makeMessage(Label.EC_UPDATE, loc.x % 128, loc.y % 128, safestDir().ordinal());
     }
 
-    static void addOrUpdateEC(MapLocation loc, Team team, int influence) {
-        int idx = ECFound;
-        for (int i = 0; i < ECFound; i++)
-            if (ECLocs[i].isWithinDistanceSquared(loc, 0))
-                idx = i;
-        if (idx == ECFound) {
-            ECFound++;
+    /**
+     * Sends a muckraker to the enemy slanderer cell with the most sightings per muckraker
+     * already sent there. The cell is claimed (claimHunt) once the message is flagged: queued
+     * hunters pick their cell again when they are built (see QueueController.tryUnitBuild).
+     */
+    static Message makeHuntMessage() {
+        int cell = slandererHeat.bestCell(rc.getRoundNum());
+        if (cell == -1) return null;
+        return makeMessage(Label.SLANDERERS_SEEN, SlandererHeatmap.centerX(cell), SlandererHeatmap.centerY(cell));
+    }
+
+    static void claimHunt(Message hunt) {
+        slandererHeat.claim(SlandererHeatmap.cellOf(hunt.data[0], hunt.data[1]), rc.getRoundNum());
+    }
+
+    /**
+     * Passes on the map edges we know, one per call, so units don't have to find them. Only
+     * edges not sent since our last build go out, so the flag is free for EC_UPDATE otherwise.
+     */
+    static Message makeEdgeMessage() {
+        for (int i = 0; i < 4; i++) {
+            broadcastEdge = (broadcastEdge + 1) % 4;
+            int coord = NavHistory.edge(broadcastEdge);
+            if (coord == NavHistory.UNKNOWN || edgeSentRound[broadcastEdge] > lastBuildRound) continue;
+            edgeSentRound[broadcastEdge] = rc.getRoundNum();
+            return makeMessage(Label.MAP_EDGE, broadcastEdge, coord % 128);
         }
+        return null;
+    }
+
+    /**
+     * Hunts enemy slanderers if any were seen, else explores a sector no other explorer has.
+     */
+    static Message makeMuckrakerMessage() {
+        Message message = makeHuntMessage();
+        if (message == null && canAfford(SECTOR_COST)) message = ExplorePlanner.nextSector();
+        return message != null ? message : makeMessage(Label.EXPLORE);
+    }
 
-        ECLocs[idx] = loc;
-        ECTeam[idx] = team;
-        ECInfluence[idx] = influence;
+    static void addOrUpdateEC(MapLocation loc, Team team, int influence) {
+        ECs.update(loc, team, influence, rc.getRoundNum());
     }
 
     static Direction safestDir() {
@@ -319,33 +378,4 @@ public class EnlightenmentCenter extends Robot {
         }
         return optimalDir;
     }
-
-    static int getBestNeutralEC() {
-        int best = -1;
-        for (int i = 0; i < ECFound; i++) {
-            if (ECTeam[i] != Team.NEUTRAL)
-                continue;
-
-            MapLocation location = ECLocs[i];
-            int distance = location.distanceSquaredTo(rc.getLocation());
-            int influence = ECInfluence[i];
-
-            int actingInfluence = (int) (1.7 * rc.getInfluence());
-            if (actingInfluence - influence <= influenceMinimum())
-                continue;
-
-            if (best == -1) {
-                best = i;
-                continue;
-            }
-
-            MapLocation bestLocation = ECLocs[best];
-            int bestDistance = bestLocation.distanceSquaredTo(rc.getLocation());
-            int bestInfluence = ECInfluence[best];
-
-            if (distance + influence < bestDistance + bestInfluence)
-                best = i;
-        }
-        return best;
-    }
 }
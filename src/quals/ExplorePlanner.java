@@ -0,0 +1,130 @@
+package quals;
+
+import battlecode.common.MapLocation;
+import quals.Communication.Label;
+import quals.Communication.Message;
+import quals.utils.NavHistory;
+
+import static quals.Robot.makeMessage;
+import static quals.Robot.rc;
+import static quals.utils.SlandererHeatmap.*;
+
+/**
+ * Splits exploration between our explorers, so muckrakers built a round apart don't search the
+ * same chunks around the EC.
+ * <p>
+ * Coverage is kept on the same coarse grid as the slanderer heatmap (cells of 8x8 tiles, by
+ * location mod 128), from the positions our units report in DANGER_INFO. Each new explorer is
+ * sent to the closest cell nobody has visited lately and no other explorer is headed to or
+ * near, with an EXPLORE_SECTOR message. A claim is held while its explorer is queued, and
+ * handed back when the explorer dies, when its cell gets visited after the build, or if the
+ * explorer leaves the queue unbuilt (see QueueController.dropped).
+ */
+public class ExplorePlanner {
+    static final int MAX_CLAIMS = 16;
+    static final int MAX_RING = 5; // cells away from us, at most
+    static final int STALE_ROUNDS = 300; // cells visited longer ago are worth exploring again
+
+    static int[] visited = new int[GRID * GRID]; // round of the last report from the cell, 0 for never
+    static int[] nearClaims = new int[GRID * GRID]; // claims on the cell or next to it
+
+    static int[] claimCells = new int[MAX_CLAIMS];
+    static int[] claimIDs = new int[MAX_CLAIMS]; // -1 until built
+    static int[] claimRounds = new int[MAX_CLAIMS]; // of the build
+    static int numClaims = 0;
+
+    /**
+     * Records that one of our units is (or just was) at the location.
+     */
+    static void noteVisit(MapLocation loc) {
+        visited[cellOf(loc.x % 128, loc.y % 128)] = rc.getRoundNum();
+    }
+
+    /**
+     * Hands back the claims of explorers that died or arrived. Call once per turn, after
+     * reading flags.
+     */
+    static void update() {
+        noteVisit(rc.getLocation());
+        for (int i = numClaims; --i >= 0; ) {
+            if (claimIDs[i] == -1) continue; // still queued
+            if (!rc.canGetFlag(claimIDs[i]) || visited[claimCells[i]] > claimRounds[i]) release(i);
+        }
+    }
+
+    /**
+     * Claims a cell for the next explorer.
+     *
+     * @return its EXPLORE_SECTOR message, or null if there is no cell left to hand out
+     */
+    static Message nextSector() {
+        if (numClaims == MAX_CLAIMS) return null;
+        MapLocation here = rc.getLocation();
+        int round = rc.getRoundNum();
+        for (int ring = 1; ring <= MAX_RING; ring++) {
+            int best = -1, seen = 0;
+            for (int dx = -ring; dx <= ring; dx++) {
+                int step = (dx == -ring || dx == ring) ? 1 : 2 * ring; // only the ring's border
+                for (int dy = -ring; dy <= ring; dy += step) {
+                    int x = here.x + dx * CELL, y = here.y + dy * CELL;
+                    if (!onKnownMap(x, y)) continue;
+                    int cell = cellOf(x % 128, y % 128);
+                    if (nearClaims[cell] > 0) continue;
+                    if (visited[cell] != 0 && round - visited[cell] < STALE_ROUNDS) continue;
+                    if (Robot.randomInt(++seen) == 0) best = cell; // uniform among the ring's cells
+                }
+            }
+            if (best != -1) {
+                claim(best);
+                return makeMessage(Label.EXPLORE_SECTOR, centerX(best), centerY(best));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records the explorer built for a claimed cell. Called by QueueController after the build,
+     * with -1 if it died right away.
+     */
+    static void noteBuilt(int xMod, int yMod, int id) {
+        int cell = cellOf(xMod, yMod);
+        for (int i = 0; i < numClaims; i++) {
+            if (claimCells[i] != cell || claimIDs[i] != -1) continue;
+            if (id == -1) {
+                release(i);
+            } else {
+                claimIDs[i] = id;
+                claimRounds[i] = rc.getRoundNum();
+            }
+            return;
+        }
+    }
+
+    private static boolean onKnownMap(int x, int y) {
+        return (NavHistory.minX == NavHistory.UNKNOWN || x >= NavHistory.minX)
+                && (NavHistory.maxX == NavHistory.UNKNOWN || x <= NavHistory.maxX)
+                && (NavHistory.minY == NavHistory.UNKNOWN || y >= NavHistory.minY)
+                && (NavHistory.maxY == NavHistory.UNKNOWN || y <= NavHistory.maxY);
+    }
+
+    private static void claim(int cell) {
+        claimCells[numClaims] = cell;
+        claimIDs[numClaims++] = -1;
+        markNear(cell, 1);
+    }
+
+    private static void release(int i) {
+        markNear(claimCells[i], -1);
+        numClaims--;
+        claimCells[i] = claimCells[numClaims];
+        claimIDs[i] = claimIDs[numClaims];
+        claimRounds[i] = claimRounds[numClaims];
+    }
+
+    private static void markNear(int cell, int delta) {
+        int cx = cell / GRID, cy = cell % GRID;
+        for (int dx = -1; dx <= 1; dx++)
+            for (int dy = -1; dy <= 1; dy++)
+                nearClaims[((cx + dx + GRID) % GRID) * GRID + (cy + dy + GRID) % GRID] += delta;
+    }
+}
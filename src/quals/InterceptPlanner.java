@@ -0,0 +1,100 @@
+package quals;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotInfo;
+import quals.Communication.Label;
+import quals.Communication.Message;
+
+import static quals.Robot.makeMessage;
+import static quals.Robot.rc;
+
+/**
+ * Assigns defending politicians to enemy muckrakers, so defenders don't have to read each
+ * other's flags to avoid chasing the same one.
+ * <p>
+ * Threats are the muckrakers the EC senses plus the ones reported through DANGER_INFO this
+ * turn. Each threat (closest to us first) gets the closest politician we can see that isn't
+ * assigned yet. Assignments go out one per turn as INTERCEPT messages, addressed by the
+ * defender's ID mod 128 (defenders that can't see or reach the threat ignore it). Defenders
+ * whose residue another one we see shares are left out, as both would act on the message.
+ */
+public class InterceptPlanner {
+    static final int MAX_THREATS = 8;
+    static final int MERGE_DIST = 2; // reports this close are the same muckraker
+
+    // threats this turn
+    static MapLocation[] threats = new MapLocation[MAX_THREATS];
+    static int numThreats = 0;
+
+    // assignments (parallel to threats), -1 if nobody was free
+    static int[] defenders = new int[MAX_THREATS];
+    static int broadcastIndex = 0;
+
+    /**
+     * Records a muckraker reported by one of our units. Call while reading flags.
+     */
+    static void noteDanger(MapLocation loc) {
+        if (numThreats == MAX_THREATS) return;
+        for (int i = 0; i < numThreats; i++)
+            if (threats[i].isWithinDistanceSquared(loc, MERGE_DIST)) return;
+        threats[numThreats++] = loc;
+    }
+
+    /**
+     * Matches this turn's threats to defenders. Call once per turn, after reading flags.
+     */
+    static void plan() {
+        for (int i = 0; i < Sensing.numEnemyMuckrakers; i++)
+            noteDanger(Sensing.enemyMuckrakers[i].getLocation());
+
+        // closest threats first (insertion sort, there are only a few)
+        MapLocation here = rc.getLocation();
+        for (int i = 1; i < numThreats; i++) {
+            MapLocation threat = threats[i];
+            int j = i - 1;
+            for (; j >= 0 && threats[j].distanceSquaredTo(here) > threat.distanceSquaredTo(here); j--)
+                threats[j + 1] = threats[j];
+            threats[j + 1] = threat;
+        }
+
+        // a message for a residue two of them share would send both: leave those out
+        StringBuilder seen = new StringBuilder();
+        StringBuilder taken = new StringBuilder(); // residues of shared or assigned defenders
+        for (int j = 0; j < Sensing.numFriendlyPoliticians; j++) {
+            String key = String.valueOf((char) (Sensing.friendlyPoliticians[j].getID() % 128));
+            if (seen.indexOf(key) == -1) seen.append(key);
+            else taken.append(key);
+        }
+
+        for (int i = 0; i < numThreats; i++) {
+            defenders[i] = -1;
+            int bestDist = Integer.MAX_VALUE;
+            for (int j = 0; j < Sensing.numFriendlyPoliticians; j++) {
+                RobotInfo info = Sensing.friendlyPoliticians[j];
+                int dist = info.getLocation().distanceSquaredTo(threats[i]);
+                if (dist < bestDist && taken.indexOf(String.valueOf((char) (info.getID() % 128))) == -1) {
+                    bestDist = dist;
+                    defenders[i] = info.getID();
+                }
+            }
+            if (defenders[i] != -1)
+                taken.append((char) (defenders[i] % 128));
+        }
+    }
+
+    /**
+     * @return the next assignment to broadcast, or null if there is none this turn. Clears
+     * this turn's threats.
+     */
+    static Message nextMessage() {
+        Message message = null;
+        for (int k = 0; k < numThreats && message == null; k++) {
+            broadcastIndex = (broadcastIndex + 1) % numThreats;
+            if (defenders[broadcastIndex] == -1) continue;
+            MapLocation threat = threats[broadcastIndex];
+            message = makeMessage(Label.INTERCEPT, threat.x % 128, threat.y % 128, defenders[broadcastIndex] % 128);
+        }
+        numThreats = 0;
+        return message;
+    }
+}
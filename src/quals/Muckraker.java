@@ -1,6 +1,7 @@
 package quals;
 
 import battlecode.common.*;
+import quals.utils.OccupancyGrid;
 
 import static quals.Communication.Message;
 import static quals.Communication.decode;
@@ -15,12 +16,20 @@ public class Muckraker extends Robot {
     static MapLocation enemyLoc;
     static Direction shoulderingDirection;
 
+    /* Blockade vars */
+    static MapLocation blockadeECLoc;
+    static int blockadeSlot;
+    static final int CLEAR_ROUNDS = 3; // after the last attacking politician we saw
+    static final int MAX_ATTACKER_READS = 4;
+    static int clearUntil = -1;
+
     /* attack slanderer vars */
     static MapLocation enemySlanderLoc = null;
 
     static final int CENTER_DEFEND_RADIUS = 100; // shoulder within 10 blocks of our own EC
     static final int BLOCKING_TURN_LIMIT = 100; // only block for the first 100 turns of existence.
     static int[] OFFSETS = {0, 1, 7, 2, 6};
+    static OccupancyGrid occupancy = new OccupancyGrid(); // rebuilt every turn from nearby
 
     @Override
     void onAwake() {
@@ -33,15 +42,29 @@ public class Muckraker extends Robot {
                 scoutDir = fromOrdinal(assignment.data[0]);
                 Nav.doGoInDir(scoutDir);
                 break;
+            case BLOCKADE:
+                state = State.Blockade;
+                blockadeECLoc = getLocFromMessage(assignment.data[0], assignment.data[1]);
+                blockadeSlot = assignment.data[2];
+                Nav.doGoTo(blockadeECLoc.add(directions[blockadeSlot]));
+                break;
+            case EXPLORE_SECTOR: // scout the sector, then explore from there
+                state = State.Scout;
+                Nav.doGoTo(getLocFromMessage(assignment.data[0], assignment.data[1]));
+                break;
+            case SLANDERERS_SEEN: // sent to a cell where enemy slanderers were seen
+                enemySlanderLoc = getLocFromMessage(assignment.data[0], assignment.data[1]);
+                break;
         }
     }
 
     @Override
     void onUpdate() throws GameActionException {
         super.onUpdate();
+        occupancy.build(rc.getLocation(), nearby, rc.getType().sensorRadiusSquared);
         transition();
         state.act();
-        Clock.yield();
+        endTurn();
     }
 
     void transition() throws GameActionException {
@@ -50,22 +73,21 @@ public class Muckraker extends Robot {
             int flag = rc.getFlag(centerID);
             if (flag != 0) {
                 Message msg = decode(flag);
-                if (msg.label == Communication.Label.SLANDERERS_SEEN) {
-//                    enemySlanderLoc = getLocFromMessage(msg.data[0], msg.data[1]);
+                if (msg.label == Communication.Label.SLANDERERS_SEEN && state == State.Explore
+                        && enemySlanderLoc == null) {
+                    enemySlanderLoc = getLocFromMessage(msg.data[0], msg.data[1]);
                 }
             }
         }
 
         // Check if we see enough enemy slanderers:
-        int slandererCount = 0, maxSlandererInfluence = -1;
+        int slandererCount = Sensing.numEnemySlanderers, maxSlandererInfluence = -1;
         MapLocation maxSlandererLoc = null;
-        for (RobotInfo info : nearby) {
-            if (info.getType() == RobotType.SLANDERER && info.getTeam() != rc.getTeam()) {
-                slandererCount++;
-                if (info.getInfluence() > maxSlandererInfluence) {
-                    maxSlandererLoc = info.getLocation();
-                    maxSlandererInfluence = info.getInfluence();
-                }
+        for (int i = 0; i < slandererCount; i++) {
+            RobotInfo info = Sensing.enemySlanderers[i];
+            if (info.getInfluence() > maxSlandererInfluence) {
+                maxSlandererLoc = info.getLocation();
+                maxSlandererInfluence = info.getInfluence();
             }
         }
 
@@ -77,6 +99,15 @@ public class Muckraker extends Robot {
                 rc.getLocation().isWithinDistanceSquared(enemySlanderLoc, 4))
             enemySlanderLoc = null;
 
+        // Blockade -> Explore, once the EC isn't the enemy's anymore
+        if (state == State.Blockade) {
+            if (!rc.canSenseLocation(blockadeECLoc)) return;
+            RobotInfo ec = rc.senseRobotAtLocation(blockadeECLoc);
+            if (ec != null && ec.getTeam() == rc.getTeam().opponent()) return;
+            state = State.Explore;
+            Nav.doExplore();
+        }
+
         // Scout -> Explore (or exit)
         if (state == State.Scout) {
             if (Nav.currentGoal == Nav.NavGoal.Nothing) {
@@ -149,7 +180,7 @@ public class Muckraker extends Robot {
             public void act() throws GameActionException {
                 for (int i : OFFSETS) {
                     MapLocation potential = enemyLoc.add(fromOrdinal((shoulderingDirection.ordinal() + i) % 8));
-                    if (rc.canDetectLocation(potential) && !rc.isLocationOccupied(potential)) {
+                    if (occupancy.isFree(potential) && rc.onTheMap(potential)) {
                         Nav.doGoTo(potential);
                         Direction move = Nav.tick();
                         if (move != null && rc.canMove(move)) {
@@ -165,6 +196,33 @@ public class Muckraker extends Robot {
                 if (move != null && rc.canMove(move)) takeMove(move);
             }
         },
+        Blockade {
+            @Override
+            public void act() throws GameActionException {
+                if (trySlandererKill()) return;
+
+                // make way for our politicians, out of reach of speeches from the slots
+                if (politicianAttacking()) clearUntil = rc.getRoundNum() + CLEAR_ROUNDS;
+                if (rc.getRoundNum() <= clearUntil) {
+                    if (rc.getLocation().isWithinDistanceSquared(blockadeECLoc, 8)) stepAway(blockadeECLoc);
+                    return;
+                }
+                if (rc.getLocation().isWithinDistanceSquared(blockadeECLoc, 2)) return; // hold the tile
+
+                // head for our slot, or any open tile next to the EC if it's taken (or off the map)
+                MapLocation target = blockadeECLoc.add(directions[blockadeSlot]);
+                if (rc.canSenseLocation(blockadeECLoc)) {
+                    for (int i = 0; i < 8; i++) {
+                        target = blockadeECLoc.add(directions[(blockadeSlot + i) % 8]);
+                        if (occupancy.isFree(target) && rc.onTheMap(target)) break;
+                        target = blockadeECLoc; // all taken: stay close for the next opening
+                    }
+                }
+                Nav.doGoTo(target);
+                Direction move = Nav.tick();
+                if (move != null && rc.canMove(move)) takeMove(move);
+            }
+        },
         AttackSlanderer {
             @Override
             public void act() throws GameActionException {
@@ -175,6 +233,34 @@ public class Muckraker extends Robot {
         public abstract void act() throws GameActionException;
     }
 
+    /**
+     * @return whether one of the closest friendly politicians flags ATTACKING (assaults do so
+     * once they close in)
+     */
+    static boolean politicianAttacking() throws GameActionException {
+        for (int i = 0; i < Sensing.numFriendlyPoliticians && i < MAX_ATTACKER_READS; i++) {
+            int id = Sensing.friendlyPoliticians[i].getID();
+            if (!rc.canGetFlag(id)) continue;
+            int flag = rc.getFlag(id);
+            if (flag != 0 && decode(flag).label == Communication.Label.ATTACKING) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves away from the location, or to the side if that's blocked.
+     */
+    static void stepAway(MapLocation loc) throws GameActionException {
+        Direction away = loc.directionTo(rc.getLocation());
+        for (int offset : OFFSETS) {
+            Direction dir = directions[(away.ordinal() + offset) % 8];
+            if (rc.canMove(dir)) {
+                takeMove(dir);
+                return;
+            }
+        }
+    }
+
     /**
      * Determines whether or not an enemy is worth shouldering-
      * if so it sets the enemyMuckraker and shoulderingDirection accordingly.
@@ -183,15 +269,13 @@ public class Muckraker extends Robot {
      */
     static boolean shouldShoulder() throws GameActionException {
         enemyLoc = null; // Find the closest enemy muckraker
-        for (RobotInfo info : nearby) {
-            if (info.getType() != RobotType.MUCKRAKER || info.getTeam() != rc.getTeam().opponent()) continue;
-            if (enemyLoc != null && rc.getLocation().distanceSquaredTo(info.getLocation()) >=
-                    rc.getLocation().distanceSquaredTo(enemyLoc)) continue;
+        for (int i = 0; i < Sensing.numEnemyMuckrakers && enemyLoc == null; i++) { // closest first
+            RobotInfo info = Sensing.enemyMuckrakers[i];
 
             // check to make sure there is at least one available spot around the enemy muckraker...
             for (Direction dir : Robot.directions) {
                 MapLocation potential = info.getLocation().add(dir);
-                if (rc.canDetectLocation(potential) && !rc.isLocationOccupied(potential)) {
+                if (occupancy.isFree(potential) && rc.onTheMap(potential)) {
                     enemyLoc = info.getLocation();
                     break;
                 }
@@ -230,30 +314,19 @@ public class Muckraker extends Robot {
     }
 
     static int closestSlanderer() {
-        int closestSlandererID = -1, distanceToSlanderer = -1;
-        for (RobotInfo info : nearby) {
-            if (info.getTeam() != rc.getTeam() && info.getType() == RobotType.SLANDERER) {
-                int distance = rc.getLocation().distanceSquaredTo(info.getLocation());
-                if (closestSlandererID == -1 || distance < distanceToSlanderer) {
-                    closestSlandererID = info.getID();
-                    distanceToSlanderer = distance;
-                }
-            }
-        }
-        return closestSlandererID;
+        return Sensing.numEnemySlanderers > 0 ? Sensing.enemySlanderers[0].getID() : -1; // closest first
     }
 
     static boolean trySlandererKill() throws GameActionException {
-        RobotInfo[] neighbors = rc.senseNearbyRobots(RobotType.MUCKRAKER.actionRadiusSquared, rc.getTeam().opponent());
+        int inRange = Sensing.within(Sensing.enemySlanderers, Sensing.numEnemySlanderers, RobotType.MUCKRAKER.actionRadiusSquared);
         RobotInfo best = null;
         int bestInfluence = 0;
-        for (RobotInfo info : neighbors) {
-            if (info.getType() == RobotType.SLANDERER) {
-                int influence = info.getInfluence();
-                if (influence > bestInfluence) {
-                    bestInfluence = influence;
-                    best = info;
-                }
+        for (int i = 0; i < inRange; i++) {
+            RobotInfo info = Sensing.enemySlanderers[i];
+            int influence = info.getInfluence();
+            if (influence > bestInfluence) {
+                bestInfluence = influence;
+                best = info;
             }
         }
 
@@ -2,6 +2,7 @@ package quals;
 
 import battlecode.common.*;
 import quals.utils.NavHistory;
+import quals.utils.Profiler;
 
 /**
  * Navigation class, to manage robot movement in a certain direction at each turn.
@@ -36,6 +37,32 @@ public class Nav {
     private static MapLocation goalPos = null; // associated with GoTo
     private static int goalID = -1; // associated with follow
 
+    // Follow: recent positions of the target (ring buffer), to lead it
+    static final int TRACK_LEN = 4;
+    static final int MAX_LOOKAHEAD = 8; // rounds
+    private static RobotType goalType = null;
+    private static MapLocation[] trackLocs = new MapLocation[TRACK_LEN];
+    private static int[] trackRounds = new int[TRACK_LEN];
+    private static int trackCount = 0;
+    private static int trackHead = 0; // next slot to write
+
+    // Explore: the target after the current one (closest to it), picked in the background on the way
+    static final int PREFETCH_STALE_ROUNDS = 20;
+    private static MapLocation nextExploreLoc = null;
+    private static int nextExploreRound = -1;
+    private static final Robot.Task PICK_NEXT_EXPLORE_LOC = new Robot.Task() {
+        public int stepCost() {
+            return 3000;
+        }
+
+        public boolean step() {
+            if (currentGoal != NavGoal.Explore || goalPos == null) return true;
+            nextExploreLoc = NavHistory.nearestUnexploredLocation(goalPos);
+            nextExploreRound = Robot.rc.getRoundNum();
+            return true;
+        }
+    };
+
     /**
      * Call when a robot is created to use the navigation module
      */
@@ -51,6 +78,7 @@ public class Nav {
         currentGoal = NavGoal.Explore;
 
         goalPos = null;
+        nextExploreLoc = null;
         minDistToGoal = Integer.MAX_VALUE;
         turnsSinceImprovement = 0;
     }
@@ -86,11 +114,14 @@ public class Nav {
 
     /**
      * Robot attempts to follow around the robot with the given ID. Will stop this goal if it can no longer
-     * see the robot in range.
+     * see the robot in range. Rather than chasing the target's current tile, aims for where it can
+     * cut the target off, from the target's heading over its last few positions.
      */
     public static void doFollow(int targetID) {
+        if (currentGoal == NavGoal.Follow && goalID == targetID) return; // keep the track
         currentGoal = NavGoal.Follow;
         goalID = targetID; // If we start using this, it would be helpful to track it going out of sight...
+        trackCount = 0;
     }
 
     /**
@@ -102,6 +133,13 @@ public class Nav {
      * @return the best direction to move in.
      */
     public static Direction tick(Direction[] dangerDirs) throws GameActionException {
+        if (Profiler.ENABLED) Profiler.start(Profiler.NAV_TICK);
+        Direction dir = navigate(dangerDirs);
+        if (Profiler.ENABLED) Profiler.stop(Profiler.NAV_TICK);
+        return dir;
+    }
+
+    private static Direction navigate(Direction[] dangerDirs) throws GameActionException {
         NavHistory.update(); // keep track of where we've been for the explore function
         RobotController rc = Robot.rc;
 
@@ -132,9 +170,11 @@ public class Nav {
                 return currentGoal == NavGoal.Nothing ? null : goTo(goalPos, dangerDirs);
 
             case Follow:
-                if (rc.canSenseRobot(goalID))
-                    goalPos = rc.senseRobot(goalID).location;
-                else
+                if (rc.canSenseRobot(goalID)) {
+                    RobotInfo target = rc.senseRobot(goalID);
+                    goalType = target.type;
+                    goalPos = intercept(target.location);
+                } else
                     currentGoal = NavGoal.Nothing;
 
                 return currentGoal == NavGoal.Nothing ? null : goTo(goalPos, dangerDirs);
@@ -154,10 +194,16 @@ public class Nav {
                 }
 
                 if (goalPos == null || NavHistory.visited(goalPos)) {// pick a new location to visit if necessary
-                    goalPos = NavHistory.nearestUnexploredLocation();
+                    if (nextExploreLoc != null && !NavHistory.visited(nextExploreLoc))
+                        goalPos = nextExploreLoc;
+                    else
+                        goalPos = NavHistory.nearestUnexploredLocation();
+                    nextExploreLoc = null;
                     turnsSinceImprovement = 0;
                     minDistToGoal = Integer.MAX_VALUE;
                 }
+                if (nextExploreLoc == null || rc.getRoundNum() - nextExploreRound > PREFETCH_STALE_ROUNDS)
+                    Robot.schedule(PICK_NEXT_EXPLORE_LOC, 1);
 
                 return currentGoal == NavGoal.Nothing ? null : goTo(goalPos, dangerDirs);
         }
@@ -177,6 +223,39 @@ public class Nav {
         return tick(new Direction[]{});
     }
 
+    /**
+     * Records the follow target's position, and picks the tile to head for: the first of its
+     * predicted positions (along its heading, at the speed its tile's passability allows) that
+     * we can get next to in time.
+     */
+    private static MapLocation intercept(MapLocation seen) throws GameActionException {
+        RobotController rc = Robot.rc;
+        int round = rc.getRoundNum();
+        if (trackCount == 0 || trackRounds[(trackHead + TRACK_LEN - 1) % TRACK_LEN] != round) {
+            trackLocs[trackHead] = seen;
+            trackRounds[trackHead] = round;
+            trackHead = (trackHead + 1) % TRACK_LEN;
+            if (trackCount < TRACK_LEN) trackCount++;
+        }
+        MapLocation oldest = trackLocs[(trackHead + TRACK_LEN - trackCount) % TRACK_LEN];
+        Direction heading = oldest.directionTo(seen);
+        if (heading == Direction.CENTER) return seen;
+
+        // moves per round, for the target and for us
+        double targetSpeed = rc.sensePassability(seen) / goalType.actionCooldown;
+        double ourSpeed = rc.sensePassability(rc.getLocation()) / rc.getType().actionCooldown;
+
+        MapLocation here = rc.getLocation();
+        MapLocation predicted = seen;
+        for (int t = 1; t <= MAX_LOOKAHEAD; t++) {
+            int moves = (int) (t * targetSpeed);
+            predicted = seen.translate(heading.dx * moves, heading.dy * moves);
+            int steps = Math.max(Math.abs(here.x - predicted.x), Math.abs(here.y - predicted.y)) - 1;
+            if (steps <= t * ourSpeed) break;
+        }
+        return predicted;
+    }
+
     /**
      * Picks the best goTo to use, based on the number of cooldown turns available.
      *
@@ -190,9 +269,8 @@ public class Nav {
         for (int i = 0; i < dangerDirs.length; i++)
             danger |= 1 << dangerDirs[i].ordinal();
 
-        int budget = Clock.getBytecodeNum() +
-                ((int) Math.floor(Robot.rc.getCooldownTurns()) * Robot.rc.getType().bytecodeLimit)
-                - 1000;
+        // what is left of this turn: spilling over would land the move a round late
+        int budget = Clock.getBytecodesLeft() - 1000;
 
         int sightRadius = Robot.rc.getType().sensorRadiusSquared;
 
@@ -203,6 +281,8 @@ public class Nav {
         else if (sightRadius >= 20 && budget >= 7600)
             return goTo20(target, danger);
 
+        if (sightRadius >= 20 && 7600 < Robot.rc.getType().bytecodeLimit)
+            Robot.noteDegraded(); // a wider search would have fit in a fresh turn
         return goTo8(target, danger);
     }
 
@@ -2,6 +2,7 @@ package quals;
 
 import battlecode.common.*;
 import quals.utils.IterableIdSet;
+import quals.utils.Profiler;
 
 import static quals.Communication.*;
 
@@ -17,31 +18,65 @@ public class Politician extends Robot {
     static int lastMessage = 0;
     // set of ids for tracking slanderers
     static IterableIdSet trackedIds = new IterableIdSet();
+    static IterableIdSet checkedIds = new IterableIdSet(); // friendly units that aren't slanderers
+    static IterableIdSet phaseZeroMisses = new IterableIdSet(); // read without SLANDERER last round
+    static IterableIdSet newPhaseZeroMisses = new IterableIdSet();
+    static final int MAX_FLAG_READS = 6;
+    static final int SLANDERER_SCAN_COST = 1500; // MAX_FLAG_READS reads, with the set lookups
+    static int scanCursor = 0;
+    // muckraker our EC assigned us to intercept
+    static MapLocation interceptLoc = null;
+    static int interceptID = -1;
 
     /* Attack & Neutral EC vars */
     static MapLocation targetECLoc;
 
+    /* Assault vars */
+    static final int STRAGGLER_ROUNDS = 6; // past the strike round, before attacking on our own
+    static int strikeRound;
+    static MapLocation stagingLoc;
+    static MapLocation slotLoc;
+    static boolean closingIn = false;
+
     @Override
     void onAwake() throws GameActionException {
         state = State.Explore; // By default, we explore!
+        Nav.doExplore();
         if (assignment != null && assignment.label == Label.UNCLOG) {
             state = State.Unclog;
             rc.setFlag(encode(makeMessage(Label.UNCLOG)));
+        } else if (assignment != null && assignment.label == Label.CAPTURE) {
+            state = State.CaptureNeutral;
+            targetECLoc = getLocFromMessage(assignment.data[0], assignment.data[1]);
+            Nav.doGoTo(targetECLoc);
+        } else if (assignment != null && assignment.label == Label.ASSAULT) {
+            state = State.Assault;
+            targetECLoc = getLocFromMessage(assignment.data[0], assignment.data[1]);
+            strikeRound = 4 * assignment.data[2];
+            while (strikeRound < rc.getRoundNum()) strikeRound += AssaultPlanner.STRIKE_HORIZON;
+            planAssaultSlot(directions[assignment.data[3]]);
+            Nav.doGoTo(stagingLoc);
         }
-        Nav.doExplore();
     }
 
     @Override
     void onUpdate() throws GameActionException {
         super.onUpdate();
+        if (Profiler.ENABLED) Profiler.start(Profiler.PROCESS_FLAGS);
         updateLastMessage();
+        if (Profiler.ENABLED) Profiler.stop(Profiler.PROCESS_FLAGS);
         transition();
         state.act();
-        Clock.yield();
+        endTurn();
     }
 
     void transition() throws GameActionException {
         if (state == State.Unclog) return;
+        if (state == State.CaptureNeutral && captureTargetNeutral()) return;
+        if (state == State.Assault) {
+            if (rc.getRoundNum() <= strikeRound + STRAGGLER_ROUNDS) return;
+            addAttackLoc(targetECLoc); // we missed the strike: attack on our own
+        }
 
         // consider defense
         // TODO: make DEFEND_ROUND depend on politician influence
@@ -103,6 +138,11 @@ public class Politician extends Robot {
                 if (move != null && rc.canMove(move)) takeMove(move);
 
                 if (rc.getLocation().isWithinDistanceSquared(targetECLoc, 36)) {
+                    int strike = planECStrike();
+                    if (strike != -1 && rc.canEmpower(strike)) {
+                        rc.empower(strike);
+                        return;
+                    }
                     int radius = getBestEmpowerRadius(0.5);
                     if (radius != -1 && rc.canEmpower(radius))
                         rc.empower(radius);
@@ -111,6 +151,72 @@ public class Politician extends Robot {
                     Nav.doGoTo(targetECLoc);
             }
         },
+        Assault {
+            @Override
+            public void act() throws GameActionException {
+                int round = rc.getRoundNum();
+                int dist = rc.getLocation().distanceSquaredTo(targetECLoc);
+                if (closingIn || dist <= 2) { // also asks our blockaders to make way
+                    int readyToGo = (rc.getCooldownTurns() <= 1) ? 1 : 0;
+                    flagMessage(Communication.Label.ATTACKING, firstTurn / 6, readyToGo);
+                }
+                if (!rc.isReady()) return;
+
+                // everyone in place speaks in the strike round (stragglers join if it still flips)
+                if (round >= strikeRound && dist <= 2) {
+                    int radius = round == strikeRound ? dist : planECStrike();
+                    if (radius != -1 && rc.canEmpower(radius)) {
+                        rc.empower(radius);
+                        return;
+                    }
+                }
+
+                // wait out of the target's sight until it's time to close in
+                if (round + approachTime() >= strikeRound) {
+                    if (!closingIn) {
+                        closingIn = true;
+                        Nav.doGoTo(slotLoc);
+                    }
+                } else if (rc.getLocation().isWithinDistanceSquared(stagingLoc, 2)) {
+                    return;
+                }
+                Direction move = Nav.tick();
+                if (move != null && rc.canMove(move)) takeMove(move);
+                if (move == null && dist > 2) // don't give up
+                    Nav.doGoTo(closingIn ? targetECLoc : stagingLoc);
+            }
+        },
+        CaptureNeutral {
+            @Override
+            public void act() throws GameActionException {
+                if (!rc.isReady()) return;
+
+                // speak once our share is enough to flip the EC
+                int dist = rc.getLocation().distanceSquaredTo(targetECLoc);
+                if (dist <= RobotType.POLITICIAN.actionRadiusSquared) {
+                    EmpowerSimulator.reset();
+                    int self = EmpowerSimulator.add(rc.getLocation(), rc.getTeam(), RobotType.POLITICIAN,
+                            rc.getConviction(), rc.getInfluence());
+                    int ec = -1;
+                    for (RobotInfo info : Sensing.robotsWithin(dist)) {
+                        int idx = EmpowerSimulator.add(info);
+                        if (info.getLocation().equals(targetECLoc)) ec = idx;
+                    }
+                    if (ec != -1) {
+                        EmpowerSimulator.empower(self, dist, rc.getEmpowerFactor(rc.getTeam(), 0));
+                        if (EmpowerSimulator.teams[ec] == rc.getTeam()) {
+                            rc.empower(dist);
+                            return;
+                        }
+                    }
+                }
+
+                Direction move = Nav.tick();
+                if (move != null && rc.canMove(move)) takeMove(move);
+                if (move == null) // don't give up
+                    Nav.doGoTo(targetECLoc);
+            }
+        },
         DefendSlanderer {
             public void act() throws GameActionException {
                 // update defend direction
@@ -151,11 +257,12 @@ public class Politician extends Robot {
                 int bestKills = 0;
                 int bestRadius = 0;
                 for (int radius = 1; radius <= RobotType.POLITICIAN.actionRadiusSquared; radius++) {
-                    RobotInfo[] neighbors = rc.senseNearbyRobots(radius);
-                    if (neighbors.length == 0) continue;
-                    int attackConviction = (rc.getConviction() - GameConstants.EMPOWER_TAX) / neighbors.length;
+                    int numNeighbors = Sensing.within(Sensing.robots, Sensing.numRobots, radius);
+                    if (numNeighbors == 0) continue;
+                    int attackConviction = (rc.getConviction() - GameConstants.EMPOWER_TAX) / numNeighbors;
                     int kills = 0;
-                    for (RobotInfo neighbor : neighbors) {
+                    for (int i = 0; i < numNeighbors; i++) {
+                        RobotInfo neighbor = Sensing.robots[i];
                         if (neighbor.getTeam() == opponent && neighbor.getConviction() <= attackConviction)
                             kills++;
                     }
@@ -181,32 +288,68 @@ public class Politician extends Robot {
      * @return boolean
      */
     static boolean canBeConverted() {
-        RobotInfo[] enemiesNearby = rc.senseNearbyRobots(9, rc.getTeam().opponent());
         int maximumPossibleAttack = 0;
-        for (RobotInfo enemy : enemiesNearby) {
-            if (enemy.getType() == RobotType.POLITICIAN) {
-                maximumPossibleAttack += enemy.getInfluence() - GameConstants.EMPOWER_TAX;
-            }
-        }
+        int n = Sensing.within(Sensing.enemyPoliticians, Sensing.numEnemyPoliticians, 9);
+        for (int i = 0; i < n; i++)
+            maximumPossibleAttack += Sensing.enemyPoliticians[i].getInfluence() - GameConstants.EMPOWER_TAX;
         return maximumPossibleAttack >= rc.getConviction();
     }
 
+    /**
+     * Whether the EC we were sent to capture is (as far as we can tell) still neutral.
+     */
+    static boolean captureTargetNeutral() throws GameActionException {
+        if (!rc.canSenseLocation(targetECLoc)) return true;
+        RobotInfo ec = rc.senseRobotAtLocation(targetECLoc);
+        return ec != null && ec.getTeam() == Team.NEUTRAL;
+    }
+
+    /**
+     * Resets lastMessage if a slanderer is nearby. Known slanderers (trackedIds) and units known
+     * not to be (checkedIds) are never read again, and at most MAX_FLAG_READS unknown units are
+     * read per turn, starting where the last turn stopped.
+     * <p>
+     * Whether a phase 0 or a phase 1 read sees SLANDERER depends on who moves first, so a unit is
+     * only known not to be one after missing on both, in consecutive rounds.
+     */
     static void updateLastMessage() throws GameActionException {
         lastMessage++;
-        RobotInfo[] friendly = rc.senseNearbyRobots(-1, rc.getTeam());
-        for (RobotInfo robot: friendly) {
-            int id = robot.getID();
-            if (rc.canGetFlag(id)) {
-                int flag = rc.getFlag(id);
-                if (flag != 0) {
-                    Message message = decode(flag);
-                    if (message != null && message.label == Label.SLANDERER) {
-                        lastMessage = 0;
-                        trackedIds.add(id);
-                    }
-                }
+        int maxReads = canAfford(SLANDERER_SCAN_COST) ? MAX_FLAG_READS : 0; // known ones are cheap
+        int round = rc.getRoundNum();
+        RobotInfo[] friendly = Sensing.friendlyUnits;
+        int n = Sensing.numFriendlyUnits;
+        int reads = 0;
+        int k = 0;
+        for (; k < n && reads < maxReads; k++) {
+            int id = friendly[(scanCursor + k) % n].getID();
+            if (trackedIds.contains(id)) {
+                lastMessage = 0;
+                continue;
+            }
+            if (checkedIds.contains(id)) continue;
+
+            // slanderers flag SLANDERER when (round - id) % 5 == 0, and we may see it a round late
+            int phase = ((round - id) % 5 + 5) % 5;
+            if (phase > 1 || !rc.canGetFlag(id)) continue;
+            reads++;
+            int flag = rc.getFlag(id);
+            if (flag != 0 && decode(flag).label == Label.SLANDERER) {
+                lastMessage = 0;
+                trackedIds.add(id);
+            } else if (phase == 0) {
+                newPhaseZeroMisses.add(id);
+            } else if (phaseZeroMisses.contains(id)) {
+                checkedIds.add(id);
             }
         }
+        phaseZeroMisses = newPhaseZeroMisses; // only last round's misses count
+        newPhaseZeroMisses = new IterableIdSet();
+        int stop = k;
+        // known slanderers we didn't get to
+        for (; k < n && lastMessage != 0; k++)
+            if (trackedIds.contains(friendly[(scanCursor + k) % n].getID()))
+                lastMessage = 0;
+        if (reads == maxReads) scanCursor = (scanCursor + stop) % n;
     }
 
     static void updateDefendDir() throws GameActionException {
@@ -214,7 +357,10 @@ public class Politician extends Robot {
             int flag = rc.getFlag(centerID);
             if (flag != 0) {
                 Communication.Message msg = decode(flag);
-                if (msg.label == Communication.Label.EC_UPDATE) {
+                if (msg.label == Communication.Label.INTERCEPT && msg.data[2] == rc.getID() % 128) {
+                    interceptLoc = getLocFromMessage(msg.data[0], msg.data[1]);
+                    interceptID = -1;
+                } else if (msg.label == Communication.Label.EC_UPDATE) {
                     Direction newDir = fromOrdinal(msg.data[2]);
                     if (!newDir.equals(defendDir)) {
                         prevSafeDir = defendDir;
@@ -226,38 +372,64 @@ public class Politician extends Robot {
         }
     }
 
-    static void defenseLogic(boolean ecDefense) throws GameActionException {
-        RobotInfo closestEnemy = null;
-        for (RobotInfo enemy : nearby) {
-            if (enemy.getType() == RobotType.MUCKRAKER &&
-                    enemy.getTeam() != rc.getTeam()) { // Enemy Muckraker
-                if (closestEnemy == null ||
-                        enemy.getLocation().distanceSquaredTo(rc.getLocation())
-                                < closestEnemy.getLocation().distanceSquaredTo(rc.getLocation())) {
-                    Nav.doFollow(enemy.getID());
-                    closestEnemy = enemy;
+    /**
+     * The muckraker our EC assigned us, if we can see it. An assignment is a location: we
+     * pick up the muckraker closest to it once it's in sight, and follow it by ID from then on.
+     */
+    static RobotInfo interceptTarget() throws GameActionException {
+        if (interceptID != -1) {
+            if (rc.canSenseRobot(interceptID)) return rc.senseRobot(interceptID);
+            interceptID = -1; // killed, or got away
+            interceptLoc = null;
+        }
+        if (interceptLoc == null) return null;
+
+        RobotInfo closest = null;
+        for (int i = 0; i < Sensing.numEnemyMuckrakers; i++) {
+            RobotInfo enemy = Sensing.enemyMuckrakers[i];
+            if (closest == null || enemy.getLocation().distanceSquaredTo(interceptLoc)
+                    < closest.getLocation().distanceSquaredTo(interceptLoc))
+                closest = enemy;
+        }
+        if (closest != null) {
+            interceptID = closest.getID();
+        } else if (rc.getLocation().isWithinDistanceSquared(interceptLoc, 2)) {
+            interceptLoc = null; // it's not here anymore
+        }
+        return closest;
+    }
+
+    /**
+     * Closest enemy muckraker that no other politician we can see is closer to. Defenders near
+     * each other agree on this without reading flags.
+     */
+    static RobotInfo closestUnclaimedMuckraker() {
+        for (int i = 0; i < Sensing.numEnemyMuckrakers; i++) { // closest first
+            RobotInfo enemy = Sensing.enemyMuckrakers[i];
+            int dist = enemy.getLocation().distanceSquaredTo(rc.getLocation());
+            boolean claimed = false;
+            for (int j = 0; j < Sensing.numFriendlyPoliticians; j++) {
+                if (Sensing.friendlyPoliticians[j].getLocation().distanceSquaredTo(enemy.getLocation()) < dist) {
+                    claimed = true;
+                    break;
                 }
             }
+            if (!claimed) return enemy;
         }
+        return null;
+    }
+
+    static void defenseLogic(boolean ecDefense) throws GameActionException {
+        RobotInfo closestEnemy = interceptTarget();
+        if (closestEnemy == null)
+            closestEnemy = closestUnclaimedMuckraker();
 
         if (closestEnemy != null) {
-            // See if another defending robot can get to the enemy first
-            for (RobotInfo bot : nearby) {
-                if (bot.getType() == RobotType.POLITICIAN
-                        && bot.getTeam() == rc.getTeam()
-                        && bot.getLocation().isWithinDistanceSquared(closestEnemy.getLocation(), 2)
-                ) {
-                    int flag = rc.getFlag(bot.getID());
-                    if (flag != 0 && decode(flag).label == Communication.Label.CURRENTLY_DEFENDING) {
-                        closestEnemy = null;
-                        break;
-                    }
-                }
-            }
-            if (closestEnemy != null // Note that we are the one to defend against this robot!
-                    && closestEnemy.getLocation().isWithinDistanceSquared(rc.getLocation(), 2)) {
+            Nav.doFollow(closestEnemy.getID());
+            if (closestEnemy.getLocation().isWithinDistanceSquared(rc.getLocation(), 2))
                 flagMessage(Communication.Label.CURRENTLY_DEFENDING);
-            }
+        } else if (interceptLoc != null) {
+            Nav.doGoTo(interceptLoc); // assigned a muckraker we can't see yet
         }
 
         if (closestEnemy == null && (Nav.currentGoal == Nav.NavGoal.Nothing || Nav.currentGoal == Nav.NavGoal.Follow)) { // Generic defense.
@@ -295,75 +467,144 @@ public class Politician extends Robot {
     }
 
 
-    static double empowerEfficiency(int range) throws GameActionException {
-        RobotInfo[] nearbyRobots = rc.senseNearbyRobots(range);
-        if (nearbyRobots.length == 0) {
-            return 0;
+    /**
+     * Speech efficiency for every radius, from a single sense of the action radius. Units are
+     * bucketed by squared distance and prefix-summed, so each radius sees the units within it.
+     *
+     * @return efficiencies indexed by radius (index 0 unused)
+     */
+    static double[] empowerEfficiencies() throws GameActionException {
+        int maxRadius = RobotType.POLITICIAN.actionRadiusSquared;
+        double[] efficiency = new double[maxRadius + 1];
+        RobotInfo[] inRange = Sensing.robotsWithin(maxRadius);
+        if (inRange.length == 0) {
+            return efficiency;
         }
 
         double effectiveInfluence = (rc.getConviction() - GameConstants.EMPOWER_TAX) * rc.getEmpowerFactor(rc.getTeam(), 0);
         if (effectiveInfluence <= 0) {
-            return 0;
+            return efficiency;
         }
         double baseInfluence = rc.getConviction() - GameConstants.EMPOWER_TAX;
-        double perUnit = effectiveInfluence / nearbyRobots.length;
-
-        double usefulInfluence = 0;
-        int numMuckrakersKilled = 0;
-        int num_conversions = 0;
-
-        for (int i = 0; i < nearbyRobots.length; i++) {
-            RobotInfo info = nearbyRobots[i];
-            if (info.getTeam() == rc.getTeam().opponent()) {
-                // opponent unit
+        Team opponent = rc.getTeam().opponent();
+
+        // bucket by squared distance (later prefix-summed over radius)
+        int[] units = new int[maxRadius + 1]; // everything in range splits the speech
+        int[] sharers = new int[maxRadius + 1]; // enemies whose whole share is useful
+        double[] fixedUseful = new double[maxRadius + 1]; // usefulness independent of the share
+        int neutralECDist = Integer.MAX_VALUE; // adjacent neutral EC: always worth it
+        int attackECDist = Integer.MAX_VALUE; // surrounded enemy EC with backup
+
+        // enemy muckrakers and politicians, whose kill / conversion depends on the share
+        int[] muckDist = new int[inRange.length];
+        int[] muckConviction = new int[inRange.length];
+        int numMucks = 0;
+        int[] polDist = new int[inRange.length];
+        int[] polConviction = new int[inRange.length];
+        int[] polInfluence = new int[inRange.length];
+        int numPols = 0;
+
+        for (RobotInfo info : inRange) {
+            int d = rc.getLocation().distanceSquaredTo(info.getLocation());
+            units[d]++;
+            if (info.getTeam() == opponent) {
                 if (info.getType() == RobotType.MUCKRAKER) {
                     // killing muckrakers far away from our EC is a waste
                     // 65 ~= (4.5 + sqrt(12))^2
-                    usefulInfluence += info.getConviction();
-                    if (perUnit >= info.getConviction())
-                        numMuckrakersKilled++;
-                } else if (info.getType() == RobotType.ENLIGHTENMENT_CENTER
-                        && range <= 2 && shouldAttackEC(info)) {
+                    fixedUseful[d] += info.getConviction();
+                    muckDist[numMucks] = d;
+                    muckConviction[numMucks++] = info.getConviction();
+                } else if (info.getType() == RobotType.ENLIGHTENMENT_CENTER && d <= 2 && shouldAttackEC(info)) {
                     // test if enemy EC is surrounded and we have backup
-                    return 1;
+                    attackECDist = Math.min(attackECDist, d);
+                    sharers[d]++; // for radii past 2 it is just another enemy
                 } else if (info.getType() != RobotType.POLITICIAN || info.getInfluence() > GameConstants.EMPOWER_TAX) {
-                    usefulInfluence += perUnit;
-                    if (info.getType() == RobotType.POLITICIAN && info.getConviction() < perUnit) {
-                        num_conversions++;
-                        usefulInfluence += Math.max(0,
-                                Math.min(perUnit - info.getConviction(), info.getInfluence())
-                                        - GameConstants.EMPOWER_TAX);
+                    sharers[d]++;
+                    if (info.getType() == RobotType.POLITICIAN) {
+                        polDist[numPols] = d;
+                        polConviction[numPols] = info.getConviction();
+                        polInfluence[numPols++] = info.getInfluence();
                     }
                 }
             } else {
                 // friendly / neutral unit
                 if (info.getType() == RobotType.ENLIGHTENMENT_CENTER) {
-                    if (info.getTeam() == Team.NEUTRAL && rc.getLocation().isWithinDistanceSquared(info.getLocation(), 2))
-                        return 100;
+                    if (info.getTeam() == Team.NEUTRAL && d <= 2)
+                        neutralECDist = Math.min(neutralECDist, d);
                 } else {
-                    usefulInfluence += info.getInfluence() - info.getConviction();
+                    fixedUseful[d] += info.getInfluence() - info.getConviction();
                 }
             }
         }
 
-        // calculate efficiency out of non-buff influence
-        double efficiency = usefulInfluence / baseInfluence;
+        // prefix sums, and each radius's share of the speech
+        double[] perUnit = new double[maxRadius + 1];
+        for (int r = 1; r <= maxRadius; r++) {
+            units[r] += units[r - 1];
+            sharers[r] += sharers[r - 1];
+            fixedUseful[r] += fixedUseful[r - 1];
+            perUnit[r] = units[r] == 0 ? 0 : effectiveInfluence / units[r];
+        }
 
-        // if we can convert two politicians, it is worth it to get 2 more turns
-        // also, if following turns > 4, explode
-        if (num_conversions > 1 || followingTurns > 4)
-            return numMuckrakersKilled;
-        if (state == State.DefendEC || state == state.DefendSlanderer)
-            return numMuckrakersKilled * efficiency;
+        // The share only shrinks as the radius grows, so a unit is killed (or converted) for a
+        // contiguous range of radii starting at its distance: mark those with difference arrays.
+        int[] kills = new int[maxRadius + 2];
+        for (int i = 0; i < numMucks; i++) {
+            int r = muckDist[i];
+            if (perUnit[r] < muckConviction[i]) continue;
+            kills[r]++;
+            while (r < maxRadius && perUnit[r + 1] >= muckConviction[i]) r++;
+            kills[r + 1]--;
+        }
+        int[] conversions = new int[maxRadius + 2];
+        double[] conversionUseful = new double[maxRadius + 1];
+        for (int i = 0; i < numPols; i++) {
+            int r = polDist[i];
+            if (polConviction[i] >= perUnit[r]) continue;
+            conversions[r]++;
+            for (; r <= maxRadius && polConviction[i] < perUnit[r]; r++) {
+                conversionUseful[r] += Math.max(0,
+                        Math.min(perUnit[r] - polConviction[i], polInfluence[i]) - GameConstants.EMPOWER_TAX);
+            }
+            conversions[r]--;
+        }
+
+        int numMuckrakersKilled = 0;
+        int numConversions = 0;
+        for (int r = 1; r <= maxRadius; r++) {
+            numMuckrakersKilled += kills[r];
+            numConversions += conversions[r];
+            if (units[r] == 0) continue;
+            if (r >= attackECDist && r <= 2) {
+                efficiency[r] = 1;
+                continue;
+            }
+            if (r >= neutralECDist) {
+                efficiency[r] = 100;
+                continue;
+            }
+
+            // calculate efficiency out of non-buff influence
+            double usefulInfluence = fixedUseful[r] + sharers[r] * perUnit[r] + conversionUseful[r];
+            double eff = usefulInfluence / baseInfluence;
+
+            // if we can convert two politicians, it is worth it to get 2 more turns
+            // also, if following turns > 4, explode
+            if (numConversions > 1 || followingTurns > 4)
+                efficiency[r] = numMuckrakersKilled;
+            else if (state == State.DefendEC || state == State.DefendSlanderer)
+                efficiency[r] = numMuckrakersKilled * eff;
+            else
+                efficiency[r] = eff;
+        }
         return efficiency;
-//            return num_conversions > 1 || followingTurns > 4 ? numMuckrakersKilled : efficiency;
     }
 
     static MapLocation getTargetLoc() throws GameActionException {
         int radius = 4;
         Direction dangerDir = defendDir.opposite();
         MapLocation targetLoc = centerLoc.translate(dangerDir.dx * radius, dangerDir.dy * radius);
-        targetLoc = targetLoc.translate(dangerDir.dx * (int) (Math.random() * (radius / 2)), dangerDir.dy * (int) (Math.random() * (radius / 2)));
+        targetLoc = targetLoc.translate(dangerDir.dx * randomInt(radius / 2), dangerDir.dy * randomInt(radius / 2));
         if ((targetLoc.x + targetLoc.y) % 2 != 0) {
             targetLoc = targetLoc.translate(dangerDir.dx, 0);
         }
@@ -381,10 +622,12 @@ public class Politician extends Robot {
         int bestRad = -1;
         double bestEff = threshold;
 
+        if (Profiler.ENABLED) Profiler.start(Profiler.EMPOWER_EFFICIENCY);
+        double[] efficiencies = empowerEfficiencies();
+        if (Profiler.ENABLED) Profiler.stop(Profiler.EMPOWER_EFFICIENCY);
         for (int i = 1; i <= RobotType.POLITICIAN.actionRadiusSquared; i++) {
-            double efficiency = empowerEfficiency(i);
-            if (efficiency > bestEff) {
-                bestEff = efficiency;
+            if (efficiencies[i] > bestEff) {
+                bestEff = efficiencies[i];
                 bestRad = i;
             }
         }
@@ -392,6 +635,73 @@ public class Politician extends Robot {
         return bestRad;
     }
 
+    /**
+     * Takes the slot the EC gave us next to the target, and a staging location on the side we
+     * come from, just out of the target's sensor range.
+     */
+    static void planAssaultSlot(Direction slot) {
+        slotLoc = targetECLoc.add(slot);
+
+        Direction side = targetECLoc.directionTo(rc.getLocation());
+        if (side == Direction.CENTER) side = slot;
+        stagingLoc = slotLoc;
+        while (stagingLoc.isWithinDistanceSquared(targetECLoc, RobotType.ENLIGHTENMENT_CENTER.sensorRadiusSquared))
+            stagingLoc = stagingLoc.add(side);
+    }
+
+    /**
+     * Rounds needed to reach our slot, assuming the passability here holds along the way.
+     */
+    static int approachTime() throws GameActionException {
+        MapLocation loc = rc.getLocation();
+        int tiles = Math.max(Math.abs(loc.x - slotLoc.x), Math.abs(loc.y - slotLoc.y));
+        double cooldown = RobotType.POLITICIAN.actionCooldown / rc.sensePassability(loc);
+        return (int) Math.ceil(tiles * cooldown) + 2;
+    }
+
+    /**
+     * Simulates the friendly politicians around the target EC that are ready to go speaking
+     * first, then us. Since they run the same plan, if all of us together take the EC, we all
+     * speak this turn.
+     *
+     * @return the radius at which our speech completes the capture, or -1 if it doesn't
+     */
+    static int planECStrike() throws GameActionException {
+        int dist = rc.getLocation().distanceSquaredTo(targetECLoc);
+        if (dist > RobotType.POLITICIAN.actionRadiusSquared) return -1;
+
+        EmpowerSimulator.reset();
+        int self = EmpowerSimulator.add(rc.getLocation(), rc.getTeam(), RobotType.POLITICIAN,
+                rc.getConviction(), rc.getInfluence());
+        int target = -1;
+        int[] allies = new int[8];
+        int numAllies = 0;
+        for (RobotInfo info : nearby) {
+            int toEC = info.getLocation().distanceSquaredTo(targetECLoc);
+            // only units our speech or a speech next to the EC can reach
+            if (toEC > 9 && rc.getLocation().distanceSquaredTo(info.getLocation()) > dist) continue;
+            int idx = EmpowerSimulator.add(info);
+            if (idx == -1) break;
+            if (toEC == 0) {
+                target = idx;
+            } else if (toEC <= 2 && numAllies < allies.length && info.getTeam() == rc.getTeam()
+                    && info.getType() == RobotType.POLITICIAN && rc.canGetFlag(info.getID())) {
+                Message message = decode(rc.getFlag(info.getID()));
+                if (message.label == Label.ATTACKING && message.data[1] == 1)
+                    allies[numAllies++] = idx;
+            }
+        }
+        if (target == -1 || EmpowerSimulator.teams[target] == rc.getTeam()) return -1;
+
+        double buff = rc.getEmpowerFactor(rc.getTeam(), 0);
+        for (int i = 0; i < numAllies; i++) {
+            int ally = allies[i];
+            EmpowerSimulator.empower(ally, EmpowerSimulator.locs[ally].distanceSquaredTo(targetECLoc), buff);
+        }
+        EmpowerSimulator.empower(self, dist, buff);
+        return EmpowerSimulator.teams[target] == rc.getTeam() ? dist : -1;
+    }
+
     static boolean shouldAttackEC(RobotInfo ec) throws GameActionException {
         if (!(rc.getLocation().distanceSquaredTo(ec.getLocation()) <= 2))
             return false;
@@ -22,13 +22,27 @@ public class QueueController {
     private static Direction prevDir = null;
 
     static Direction[] spawnDirs = new Direction[8];
+    private static boolean spawnDirsSorted = false;
+
+    // sorts spawnDirs in the background: it only matters once we build
+    private static final Robot.Task SORT_SPAWN_DIRS = new Robot.Task() {
+        public int stepCost() {
+            return 2500;
+        }
+
+        public boolean step() throws GameActionException {
+            calcBestSpawnDirs();
+            return true;
+        }
+    };
 
     // good influences to build slanderers at
     static final int[] slandererInfluences = {85, 107, 130, 154, 178, 203, 229, 255, 282, 339, 399, 431, 498, 569, 605, 683, 724, 949};
 
     public static void init() throws GameActionException {
         rc = Robot.rc;
-        calcBestSpawnDirs();
+        System.arraycopy(Robot.directions, 0, spawnDirs, 0, 8);
+        Robot.schedule(SORT_SPAWN_DIRS, 0);
     }
 
     /* Managing the Queue */
@@ -52,7 +66,26 @@ public class QueueController {
     }
 
     public static void clear() {
-        pq.clear();
+        while (!pq.isEmpty())
+            dropped(pq.pop());
+    }
+
+    /**
+     * Hands back what the planners reserved for a unit that won't be built, or died right away.
+     */
+    private static void dropped(UnitBuild unit) {
+        int[] data = unit.message.data;
+        switch (unit.message.label) {
+            case CAPTURE:
+                CapturePlanner.noteBuilt(data[0], data[1], false);
+                break;
+            case BLOCKADE:
+                BlockadePlanner.noteBuilt(data[0], data[1], data[2], -1); // reopen the slot
+                break;
+            case EXPLORE_SECTOR:
+                ExplorePlanner.noteBuilt(data[0], data[1], -1);
+                break;
+        }
     }
 
     /* Managing Unit Building */
@@ -63,13 +96,28 @@ public class QueueController {
                 switch (prevUnit.message.label) {
                     case SCOUT:
                     case EXPLORE:
+                    case ASSAULT:
                         EnlightenmentCenter.trackedIds.add(info.getID()); // NOTE: Shared with EnlightenmentCenter
                         break;
+                    case CAPTURE:
+                        EnlightenmentCenter.trackedIds.add(info.getID());
+                        CapturePlanner.noteBuilt(prevUnit.message.data[0], prevUnit.message.data[1], true);
+                        break;
+                    case EXPLORE_SECTOR:
+                        EnlightenmentCenter.trackedIds.add(info.getID());
+                        ExplorePlanner.noteBuilt(prevUnit.message.data[0], prevUnit.message.data[1], info.getID());
+                        break;
                     case UNCLOG:
                         EnlightenmentCenter.unclogAdded = false;
                         EnlightenmentCenter.unclogID = info.getID();
                         break;
+                    case BLOCKADE:
+                        BlockadePlanner.noteBuilt(prevUnit.message.data[0], prevUnit.message.data[1], prevUnit.message.data[2],
+                                info.getID());
+                        break;
                 }
+            } else {
+                dropped(prevUnit); // died already
             }
             prevUnit = null;
             return true;
@@ -108,6 +156,7 @@ public class QueueController {
             return false;
         }
 
+        if (!spawnDirsSorted) calcBestSpawnDirs(); // the background task didn't get to it yet
         Direction buildDir = null;
         for (Direction spawnDir : spawnDirs) {
             if (rc.canBuildRobot(nextUnit.type, spawnDir, nextUnitInfluence)) {
@@ -118,13 +167,21 @@ public class QueueController {
 
         // Exit conditions
         if (nextUnit.type == RobotType.SLANDERER && muckrakerNearby()) {
-            pq.pop();
+            dropped(pq.pop());
             return tryUnitBuild();
         }
         if (buildDir == null) return false;
 
+        if (nextUnit.message.label == Communication.Label.SLANDERERS_SEEN) {
+            // hunters queued together would all get the same cell: pick it now, after the last one's claim
+            Communication.Message hunt = EnlightenmentCenter.makeHuntMessage();
+            if (hunt != null) nextUnit.message = hunt;
+            EnlightenmentCenter.claimHunt(nextUnit.message);
+        }
+
         rc.setFlag(encode(nextUnit.message)); // Do the build!
         rc.buildRobot(nextUnit.type, buildDir, nextUnitInfluence);
+        CapturePlanner.noteSpent(nextUnitInfluence);
         pq.pop();
 
         prevUnit = nextUnit;
@@ -144,10 +201,7 @@ public class QueueController {
     }
 
     public static boolean muckrakerNearby() {
-        for (RobotInfo bot : rc.senseNearbyRobots(-1))
-            if (bot.getTeam() != rc.getTeam() && bot.getType() == RobotType.MUCKRAKER)
-                return true;
-        return false;
+        return Sensing.numEnemyMuckrakers > 0;
     }
 
     public static int getSlandererInfluence(int useInfluence) {
@@ -172,6 +226,8 @@ public class QueueController {
     }
 
     private static void calcBestSpawnDirs() throws GameActionException {
+        if (spawnDirsSorted) return;
+        spawnDirsSorted = true;
         MapLocation currentLocation = rc.getLocation();
         System.arraycopy(Robot.directions, 0, spawnDirs, 0, 8);
 
@@ -3,6 +3,9 @@ package quals;
 import battlecode.common.*;
 import quals.Communication.Label;
 import quals.Communication.Message;
+import quals.utils.NavHistory;
+import quals.utils.Profiler;
+import quals.utils.SeenECTable;
 
 import static quals.Communication.decode;
 import static quals.Communication.encode;
@@ -12,7 +15,8 @@ abstract public class Robot {
     public static int firstTurn;
     public static MapLocation initLoc;
 
-    public static RobotInfo[] nearby;
+    public static RobotInfo[] nearby; // see Sensing for the sorted, partitioned version
+    static int sensedRound = -1;
 
     public static MapLocation nearbyBufferLoc = null;
 
@@ -46,13 +50,55 @@ abstract public class Robot {
 
     /* EC tracking vars */
     static MapLocation closestECLoc;
-    static int[] seenECs = new int[12];
-    static int numSeenECs = 0;
+    static SeenECTable seenECs = new SeenECTable(); // what we last reported about each EC
+
+    /* Map edge reports */
+    static final int EDGE_REPORTS = 3; // other messages may overwrite the flag
+    static int[] edgeReports = new int[4];
 
     /* Attack Location vars */
     static MapLocation[] attackLocs = new MapLocation[12];
     static int numAttackLocs = 0;
 
+    /* Bytecode guard */
+    static final int NOTE_ECS_COST = 1500;
+    static final int FLAG_READ_COST = 500;
+    static final int SYMMETRY_COST = 2000;
+    static final int REPORT_INTERVAL = 100; // rounds between degradation reports
+    static int turnStartBytecodes;
+    static int degradations = 0; // stages skipped or cheapened for lack of bytecodes
+    static int overruns = 0; // turns that spilled into the next round
+
+    /* Random numbers */
+    static boolean reproducible = false; // true: same seeds every match (set by harnesses, before the first draw)
+    static final int GLOBAL_SEED = 2021;
+    private static int randomState = 0; // 0 until seeded
+
+    /* Background tasks */
+    static final int MAX_TASKS = 8;
+    static final int BACKGROUND_RESERVE = 300; // bytecodes left untouched before yielding
+    private static Task[] tasks = new Task[MAX_TASKS];
+    private static int[] taskPriorities = new int[MAX_TASKS];
+    private static int numTasks = 0;
+
+    /**
+     * Work that doesn't have to happen this turn, done in steps with the bytecodes a turn leaves
+     * over (see endTurn).
+     */
+    interface Task {
+        /**
+         * @return an upper bound on the bytecodes of one step
+         */
+        int stepCost();
+
+        /**
+         * Does the next step of the work.
+         *
+         * @return whether the task is done
+         */
+        boolean step() throws GameActionException;
+    }
+
 
     public static void init(RobotController rc) throws GameActionException {
         Robot.firstTurn = rc.getRoundNum();
@@ -62,14 +108,17 @@ abstract public class Robot {
         if (rc.getType() == RobotType.ENLIGHTENMENT_CENTER) return; // Everything below here is for non-buildings:
 
         // find the EC
-        for (RobotInfo info : rc.senseNearbyRobots(2, rc.getTeam())) {
-            if (info.getType() == RobotType.ENLIGHTENMENT_CENTER) {
+        senseOnce();
+        for (int i = 0; i < Sensing.numFriendlyECs; i++) {
+            RobotInfo info = Sensing.friendlyECs[i];
+            if (info.getLocation().isWithinDistanceSquared(initLoc, 2)) {
                 Robot.centerID = info.getID();
                 Robot.centerLoc = info.getLocation();
                 int flag = rc.getFlag(Robot.centerID);
                 if (flag != 0)
                     Robot.assignment = decode(flag);
                 rc.setFlag(flag); // useful default value: so other bots can know your assignment.
+                Symmetry.init(centerLoc);
                 break;
             }
         }
@@ -82,19 +131,45 @@ abstract public class Robot {
         Nav.init();
     }
 
+    /**
+     * Called instead of init when a slanderer turns into a politician. Everything we learned
+     * stays: our EC, attack locations, reported ECs, and the explored chunks and map edges
+     * (which NavHistory keeps relative to initLoc, so initLoc must not move). Only what depends
+     * on the type restarts.
+     */
+    static void onTypeChange() throws GameActionException {
+        firstTurn = rc.getRoundNum(); // our age as a politician
+        assignment = null; // the slanderer's orders
+        senseOnce(); // with the new sensor radius
+        Nav.init();
+    }
+
     abstract void onAwake() throws GameActionException;
 
-    void onUpdate() throws GameActionException {
+    /**
+     * Senses the robots around us, once per round: everything else uses nearby / Sensing.
+     */
+    static void senseOnce() {
+        if (sensedRound == rc.getRoundNum()) return;
+        sensedRound = rc.getRoundNum();
+        turnStartBytecodes = Clock.getBytecodeNum();
+        if (Profiler.ENABLED) Profiler.start(Profiler.TURN);
+        if (Profiler.ENABLED) Profiler.start(Profiler.SENSE);
         nearby = rc.senseNearbyRobots();
+        Sensing.update(rc.getLocation(), nearby, rc.getTeam());
+        if (Profiler.ENABLED) Profiler.stop(Profiler.SENSE);
+    }
+
+    void onUpdate() throws GameActionException {
+        senseOnce();
 
         if (rc.getType() == RobotType.ENLIGHTENMENT_CENTER) return;
 
         // send back information about danger to your EC
         int num_muckrakers = 0;
         MapLocation locationToSend = rc.getLocation();
-        for (RobotInfo bot : nearby) {
-            if (bot.getTeam() == rc.getTeam()) continue;
-            if (bot.getType() != RobotType.MUCKRAKER) continue;
+        for (int i = 0; i < Sensing.numEnemyMuckrakers; i++) {
+            RobotInfo bot = Sensing.enemyMuckrakers[i];
             if (locationToSend.equals(rc.getLocation())) locationToSend = bot.getLocation();
             if (locationToSend.distanceSquaredTo(centerLoc) > bot.getLocation().distanceSquaredTo(centerLoc))
                 locationToSend = bot.getLocation();
@@ -103,17 +178,28 @@ abstract public class Robot {
         flagMessage(Label.DANGER_INFO, locationToSend.x % 128, locationToSend.y % 128,
                 Math.min(num_muckrakers, 31));
 
-        // inform ECs of nearby enlightenment centers
-        noteNearbyECs();
+        // inform ECs of nearby enlightenment centers, and of where the enemy's should be
+        boolean flagged = canAfford(NOTE_ECS_COST) && noteNearbyECs();
+        if (canAfford(SYMMETRY_COST)) Symmetry.update();
+        if (!flagged && Symmetry.reportTurns > 0 && centerLoc.equals(Symmetry.home)) {
+            Symmetry.reportTurns--;
+            MapLocation loc = Symmetry.prediction;
+            flagMessage(Label.ENEMY_EC, loc.x % 128, loc.y % 128, 0);
+            flagged = true;
+        }
+        if (!flagged && num_muckrakers == 0) reportMapEdge(); // danger reports come first
 
         // gather locations to attack
-        if (rc.getID() != centerID && rc.canGetFlag(centerID)) {
+        if (rc.getID() != centerID && rc.canGetFlag(centerID) && canAfford(FLAG_READ_COST)) {
             int flag = rc.getFlag(centerID);
             if (flag != 0) {
                 Message msg = decode(flag);
                 if (msg.label == Label.EC_UPDATE) {
                     MapLocation loc = getLocFromMessage(msg.data[0], msg.data[1]);
                     if (!loc.isWithinDistanceSquared(centerLoc, 0)) addAttackLoc(loc);
+                } else if (msg.label == Label.MAP_EDGE) {
+                    NavHistory.setEdge(msg.data[0], getEdgeFromMessage(msg.data[0], msg.data[1]));
+                    NavHistory.foundEdges &= ~(1 << msg.data[0]); // our EC knows it already
                 }
             }
         }
@@ -148,7 +234,12 @@ abstract public class Robot {
         return closest;
     }
 
-    static void noteNearbyECs() throws GameActionException {
+    /**
+     * Keeps track of our EC and attack locations, and reports an EC we see to our EC.
+     *
+     * @return whether we set our flag to report one
+     */
+    static boolean noteNearbyECs() throws GameActionException {
         if (centerID != rc.getID()) {
             if (!rc.canGetFlag(centerID)) {
                 centerID = rc.getID();
@@ -156,45 +247,142 @@ abstract public class Robot {
             }
         }
 
-        for (RobotInfo info : nearby) {
-            if (info.getType() != RobotType.ENLIGHTENMENT_CENTER) continue;
+        for (int i = 0; i < Sensing.numFriendlyECs; i++) {
+            RobotInfo info = Sensing.friendlyECs[i];
+            if (centerLoc == null) centerLoc = info.getLocation();
+            if (centerID == rc.getID()) {
+                centerID = info.getID();
+                centerLoc = info.getLocation();
+            }
+            if (centerLoc.distanceSquaredTo(rc.getLocation()) > info.getLocation().distanceSquaredTo(rc.getLocation())) {
+                centerLoc = info.getLocation();
+                centerID = info.getID();
+            }
 
-            if (info.getTeam() == rc.getTeam()) {
-                if (centerLoc == null) centerLoc = info.getLocation();
-                if (centerID == rc.getID()) {
-                    centerID = info.getID();
-                    centerLoc = info.getLocation();
-                }
-                if (centerLoc.distanceSquaredTo(rc.getLocation()) > info.getLocation().distanceSquaredTo(rc.getLocation())) {
-                    centerLoc = info.getLocation();
-                    centerID = info.getID();
-                }
+            // Consider removing it as an attack location (could have flipped enemy -> us):
+            removeAttackLoc(info.getLocation());
+        }
 
-                // Consider removing it as an attack location:
-                removeAttackLoc(info.getLocation());
-            }
+        // Report the first EC whose team or influence bucket changed since we last did. The flag
+        // holds one message, so any others wait for the next turns.
+        for (int i = 0; i < Sensing.numEnemyECs; i++) {
+            RobotInfo info = Sensing.enemyECs[i];
+            int bucket = SeenECTable.bucket(info.getConviction(), 15);
+            if (!seenECs.update(info.getID(), info.getTeam().ordinal(), bucket)) continue;
+            MapLocation loc = info.getLocation();
+            addAttackLoc(loc); // this is now a target
+            flagMessage(Communication.Label.ENEMY_EC, loc.x % 128, loc.y % 128, bucket);
+            return true;
+        }
+        for (int i = 0; i < Sensing.numNeutralECs; i++) {
+            RobotInfo info = Sensing.neutralECs[i];
+            int bucket = SeenECTable.bucket(info.getConviction(), 15);
+            if (!seenECs.update(info.getID(), info.getTeam().ordinal(), bucket)) continue;
+            MapLocation loc = info.getLocation();
+            flagMessage(Communication.Label.NEUTRAL_EC, loc.x % 128, loc.y % 128, bucket);
+            return true;
+        }
+        for (int i = 0; i < Sensing.numFriendlyECs; i++) {
+            RobotInfo info = Sensing.friendlyECs[i];
+            if (!seenECs.update(info.getID(), info.getTeam().ordinal(), 0)) continue; // influence isn't sent
+            MapLocation loc = info.getLocation();
+            flagMessage(Communication.Label.OUR_EC, loc.x % 128, loc.y % 128);
+            return true;
+        }
+        return false;
+    }
 
-            if (seenECs[0] == info.ID || seenECs[1] == info.ID || seenECs[2] == info.ID || seenECs[3] == info.ID ||
-                    seenECs[4] == info.ID || seenECs[5] == info.ID || seenECs[6] == info.ID || seenECs[7] == info.ID ||
-                    seenECs[8] == info.ID || seenECs[9] == info.ID || seenECs[10] == info.ID || seenECs[11] == info.ID) {
-                continue; // we don't want to note it again
+    /**
+     * Reports a map edge we found ourselves, EDGE_REPORTS times or until our EC broadcasts it.
+     */
+    static void reportMapEdge() throws GameActionException {
+        for (int edge = 0; edge < 4; edge++) {
+            if ((NavHistory.foundEdges & (1 << edge)) == 0) continue;
+            if (edgeReports[edge]++ == EDGE_REPORTS) {
+                NavHistory.foundEdges &= ~(1 << edge);
+                continue;
             }
-            seenECs[(numSeenECs++) % 12] = info.getID();
+            flagMessage(Label.MAP_EDGE, edge, NavHistory.edge(edge) % 128);
+            return;
+        }
+    }
 
-            MapLocation loc = info.getLocation();
-            int log = (int) (Math.log(info.getConviction()) / Math.log(2)) + 1;
-            if (info.getTeam() == rc.getTeam().opponent()) { // Enemy EC message...
-                addAttackLoc(loc); // this is now a target
-                flagMessage(Communication.Label.ENEMY_EC, loc.x % 128, loc.y % 128, Math.min(log, 15));
-            } else if (info.getTeam() == Team.NEUTRAL) { // Neutral EC message...
-                flagMessage(Communication.Label.NEUTRAL_EC, loc.x % 128, loc.y % 128, Math.min(log, 15));
-            } else {
-                removeAttackLoc(loc); // could have flipped enemy -> us
-                flagMessage(Communication.Label.OUR_EC, loc.x % 128, loc.y % 128);
+    /* Bytecode guard */
+
+    /**
+     * Checkpoint for a stage that can be skipped: whether this turn has the bytecodes for it.
+     * Saying no counts as a degradation.
+     */
+    static boolean canAfford(int bytecodes) {
+        if (Clock.getBytecodesLeft() >= bytecodes) return true;
+        degradations++;
+        return false;
+    }
+
+    /**
+     * Counts a stage that ran in a cheaper form for lack of bytecodes.
+     */
+    static void noteDegraded() {
+        degradations++;
+    }
+
+    /* Background tasks */
+
+    /**
+     * Registers a task to run in the background. Lower priorities run first (like the build
+     * queue's levels). A task that is already scheduled is left alone.
+     */
+    static void schedule(Task task, int priority) {
+        for (int i = 0; i < numTasks; i++)
+            if (tasks[i] == task) return;
+        if (numTasks == MAX_TASKS) return;
+        tasks[numTasks] = task;
+        taskPriorities[numTasks++] = priority;
+    }
+
+    /**
+     * Runs steps of the scheduled tasks, most urgent first, while a step fits in what is left
+     * of the turn above BACKGROUND_RESERVE. Tasks whose step doesn't fit wait for a later turn.
+     * Nothing runs if the turn already went over into the next round.
+     */
+    static void runBackgroundTasks() throws GameActionException {
+        if (sensedRound != rc.getRoundNum()) return;
+        while (numTasks > 0) {
+            int next = -1;
+            int left = Clock.getBytecodesLeft() - BACKGROUND_RESERVE;
+            for (int i = 0; i < numTasks; i++)
+                if (tasks[i].stepCost() <= left && (next == -1 || taskPriorities[i] < taskPriorities[next]))
+                    next = i;
+            if (next == -1) return;
+            if (tasks[next].step()) {
+                numTasks--;
+                tasks[next] = tasks[numTasks];
+                taskPriorities[next] = taskPriorities[numTasks];
+                tasks[numTasks] = null;
             }
         }
     }
 
+    /**
+     * Spends the turn's leftover bytecodes on background tasks, then yields. Call instead of
+     * Clock.yield() at the end of onUpdate. Also counts (and logs) turns that went over the
+     * limit, and reports the guard's counters every REPORT_INTERVAL rounds.
+     */
+    static void endTurn() throws GameActionException {
+        if (sensedRound != rc.getRoundNum()) {
+            overruns++;
+            logBytecodeUse(sensedRound, turnStartBytecodes);
+        }
+        if (Profiler.ENABLED) Profiler.start(Profiler.BACKGROUND);
+        runBackgroundTasks();
+        if (Profiler.ENABLED) Profiler.stop(Profiler.BACKGROUND);
+        if (Profiler.ENABLED) Profiler.stop(Profiler.TURN);
+        if (Profiler.ENABLED) Profiler.report();
+        if (rc.getRoundNum() % REPORT_INTERVAL == 0 && degradations + overruns > 0)
+            System.out.println("@@@Degraded stages: " + degradations + ", overruns: " + overruns);
+        Clock.yield();
+    }
+
     /* Utility functions */
 
     static void takeMove(Direction dir) throws GameActionException {
@@ -222,6 +410,49 @@ abstract public class Robot {
         return currentLocation.translate(xOff, yOff);
     }
 
+    /* Random numbers */
+
+    /**
+     * @return 32 random bits, from an xorshift generator seeded (on first use) with our ID, and
+     * with GLOBAL_SEED or, unless reproducible, Math.random
+     */
+    public static int randomBits() {
+        int x = randomState;
+        if (x == 0) {
+            x = rc.getID() * 0x9E3779B9 ^ (reproducible ? GLOBAL_SEED : (int) (Math.random() * Integer.MAX_VALUE));
+            if (x == 0) x = GLOBAL_SEED;
+        }
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        randomState = x;
+        return x;
+    }
+
+    /**
+     * @return a random int in [0, bound)
+     */
+    public static int randomInt(int bound) {
+        return (randomBits() >>> 1) % bound;
+    }
+
+    /**
+     * @return a random double in [0, 1), like Math.random
+     */
+    public static double random() {
+        return (randomBits() >>> 8) / (double) (1 << 24);
+    }
+
+    /**
+     * @return the full coordinate of a map edge sent mod 128 (see NavHistory.setEdge)
+     */
+    static int getEdgeFromMessage(int edge, int coordMod) {
+        MapLocation here = rc.getLocation();
+        if (edge == NavHistory.NORTH || edge == NavHistory.SOUTH)
+            return getLocFromMessage(here.x % 128, coordMod).y;
+        return getLocFromMessage(coordMod, here.y % 128).x;
+    }
+
     static Direction fromOrdinal(int i) {
         return allDirections[i];
     }
@@ -29,10 +29,8 @@ public strictfp class RobotPlayer {
                     robot.onUpdate();
                     RobotType currType = rc.getType();
                     if (currType != myType) {
-                        // switching slanderer to politician
-                        int currCenterId = Robot.centerID;
-                        Robot.init(rc);
-                        Robot.centerID = currCenterId;
+                        // switching slanderer to politician: keep what we know
+                        Robot.onTypeChange();
                         robot = getRobot(currType);
                         robot.onAwake();
                         myType = currType;
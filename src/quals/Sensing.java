@@ -0,0 +1,137 @@
+package quals;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotInfo;
+import battlecode.common.RobotType;
+import battlecode.common.Team;
+
+/**
+ * One sense per turn, shared by all robot logic.
+ * <p>
+ * <b>Usage:</b>
+ * Robot.onUpdate senses once and calls update(). Everything else reads the lists here instead
+ * of calling rc.senseNearbyRobots: every list is sorted by distance (closest first), so "within
+ * radius r" is a prefix, see within().
+ * <p>
+ * Distances are from where we were when the turn started. Nothing that needs exact positions
+ * can happen after a move anyway (moving puts us on cooldown).
+ */
+public class Sensing {
+    static final int MAX_DIST = 64; // > any sensor radius
+
+    static MapLocation center;
+
+    // everything in sight
+    static RobotInfo[] robots = new RobotInfo[0];
+    static int numRobots = 0;
+
+    // by team and type
+    static RobotInfo[] enemyMuckrakers = new RobotInfo[0];
+    static int numEnemyMuckrakers = 0;
+    static RobotInfo[] enemyPoliticians = new RobotInfo[0];
+    static int numEnemyPoliticians = 0;
+    static RobotInfo[] enemySlanderers = new RobotInfo[0];
+    static int numEnemySlanderers = 0;
+    static RobotInfo[] enemyECs = new RobotInfo[0];
+    static int numEnemyECs = 0;
+    static RobotInfo[] neutralECs = new RobotInfo[0];
+    static int numNeutralECs = 0;
+    static RobotInfo[] friendlyUnits = new RobotInfo[0]; // every friendly robot but ECs
+    static int numFriendlyUnits = 0;
+    static RobotInfo[] friendlyPoliticians = new RobotInfo[0];
+    static int numFriendlyPoliticians = 0;
+    static RobotInfo[] friendlyECs = new RobotInfo[0];
+    static int numFriendlyECs = 0;
+
+    private static int[] bucketStart = new int[MAX_DIST + 2];
+
+    /**
+     * Sorts and partitions this turn's sense. A counting sort on squared distance keeps it
+     * linear in the number of robots.
+     */
+    static void update(MapLocation here, RobotInfo[] sensed, Team team) {
+        center = here;
+        int n = sensed.length;
+        if (robots.length < n) grow(n);
+
+        int[] start = bucketStart;
+        for (int d = 0; d <= MAX_DIST + 1; d++) start[d] = 0;
+        for (int i = 0; i < n; i++)
+            start[Math.min(here.distanceSquaredTo(sensed[i].location), MAX_DIST) + 1]++;
+        for (int d = 1; d <= MAX_DIST + 1; d++) start[d] += start[d - 1];
+        for (int i = 0; i < n; i++)
+            robots[start[Math.min(here.distanceSquaredTo(sensed[i].location), MAX_DIST)]++] = sensed[i];
+        numRobots = n;
+
+        numEnemyMuckrakers = numEnemyPoliticians = numEnemySlanderers = numEnemyECs = 0;
+        numNeutralECs = numFriendlyUnits = numFriendlyPoliticians = numFriendlyECs = 0;
+        for (int i = 0; i < n; i++) {
+            RobotInfo info = robots[i];
+            if (info.team == team) {
+                if (info.type == RobotType.ENLIGHTENMENT_CENTER) {
+                    friendlyECs[numFriendlyECs++] = info;
+                    continue;
+                }
+                friendlyUnits[numFriendlyUnits++] = info;
+                if (info.type == RobotType.POLITICIAN)
+                    friendlyPoliticians[numFriendlyPoliticians++] = info;
+            } else if (info.team == Team.NEUTRAL) {
+                neutralECs[numNeutralECs++] = info;
+            } else {
+                switch (info.type) {
+                    case MUCKRAKER:
+                        enemyMuckrakers[numEnemyMuckrakers++] = info;
+                        break;
+                    case POLITICIAN:
+                        enemyPoliticians[numEnemyPoliticians++] = info;
+                        break;
+                    case SLANDERER:
+                        enemySlanderers[numEnemySlanderers++] = info;
+                        break;
+                    case ENLIGHTENMENT_CENTER:
+                        enemyECs[numEnemyECs++] = info;
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return how many of the first `count` robots of a sorted list are within the radius
+     */
+    static int within(RobotInfo[] list, int count, int radiusSquared) {
+        int i = 0;
+        while (i < count && center.isWithinDistanceSquared(list[i].location, radiusSquared)) i++;
+        return i;
+    }
+
+    /**
+     * @return how many enemy units (not ECs) are within the radius
+     */
+    static int enemiesWithin(int radiusSquared) {
+        return within(enemyMuckrakers, numEnemyMuckrakers, radiusSquared)
+                + within(enemyPoliticians, numEnemyPoliticians, radiusSquared)
+                + within(enemySlanderers, numEnemySlanderers, radiusSquared);
+    }
+
+    /**
+     * @return every robot within the radius, closest first (like rc.senseNearbyRobots(radius))
+     */
+    static RobotInfo[] robotsWithin(int radiusSquared) {
+        RobotInfo[] result = new RobotInfo[within(robots, numRobots, radiusSquared)];
+        System.arraycopy(robots, 0, result, 0, result.length);
+        return result;
+    }
+
+    private static void grow(int n) {
+        robots = new RobotInfo[n];
+        enemyMuckrakers = new RobotInfo[n];
+        enemyPoliticians = new RobotInfo[n];
+        enemySlanderers = new RobotInfo[n];
+        enemyECs = new RobotInfo[n];
+        neutralECs = new RobotInfo[n];
+        friendlyUnits = new RobotInfo[n];
+        friendlyPoliticians = new RobotInfo[n];
+        friendlyECs = new RobotInfo[n];
+    }
+}
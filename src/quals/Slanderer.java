@@ -12,12 +12,16 @@ public class Slanderer extends Robot {
     static Direction safeDir;
 
     /* flee vars */
-    static RobotInfo[] enemies = null;
-    static double[] safetyByDir = new double[8];
-    static boolean[] viableLoc = new boolean[8];
-    static final double SAFETY_DECAY = 0.9;
     static final int MAX_DIST_FROM_EC = 100;
+    static final int CAPTURE_HORIZON = 10; // rounds: further threats don't matter
+    static final double PROTECTOR_PULL = 0.2; // per tile to the closest friendly politician / EC
     static int enemyLastSeen = 0;
+    // enemy muckrakers and friendly politicians in sight (from nearby)
+    static MapLocation[] muckLocs = new MapLocation[0];
+    static double[] muckCooldowns = new double[0]; // rounds per move
+    static int numMucks = 0;
+    static MapLocation[] protectorLocs = new MapLocation[0];
+    static int numProtectors = 0;
 
     @Override
     void onAwake() {
@@ -38,7 +42,7 @@ public class Slanderer extends Robot {
         }
         transition(); // Consider state switches
         state.act(); // Take action based on current state
-        Clock.yield();
+        endTurn();
     }
 
     /**
@@ -46,7 +50,7 @@ public class Slanderer extends Robot {
      * If switching state, updates the state variables accordingly.
      */
     void transition() throws GameActionException {
-        enemies = rc.senseNearbyRobots(-1, rc.getTeam().opponent());
+        senseThreats();
 
         if (centerID != rc.getID() && rc.canGetFlag(centerID)) {
             state = State.Hide;
@@ -64,14 +68,9 @@ public class Slanderer extends Robot {
 
         // track when we last saw enemies
         enemyLastSeen++;
-        int numEnemies = 0;
 
-        for (RobotInfo bot : enemies) {
-            if (bot.getType() == RobotType.MUCKRAKER)
-                numEnemies++;
-        }
         // flee if enemy muckraker detected
-        if (numEnemies > 0) {
+        if (numMucks > 0) {
             enemyLastSeen = 0;
             state = State.Flee;
         }
@@ -92,59 +91,103 @@ public class Slanderer extends Robot {
         Flee {
             @Override
             public void act() throws GameActionException {
-                // Update the danger estimation
-                for (RobotInfo enemy : enemies) {
-                    int threat = enemy.type == RobotType.MUCKRAKER ? 2 : 1;
-                    int safeDir = centerLoc.directionTo(enemy.location).opposite().ordinal();
-
-                    safetyByDir[(safeDir + 6) % 8] += threat;
-                    safetyByDir[(safeDir + 7) % 8] += 3 * threat;
-                    safetyByDir[(safeDir) % 8] += 5 * threat;
-                    safetyByDir[(safeDir + 1) % 8] += 3 * threat;
-                    safetyByDir[(safeDir + 2) % 8] += threat;
-                }
-
-                if (rc.isReady()) {
-                    // Calculate the maximum safety available
-                    double maxSafety = 0;
-                    for (int i = 0; i < 8; i++) {
-                        safetyByDir[i] = safetyByDir[i] * SAFETY_DECAY;
-                        if (safetyByDir[i] < 0.1)
-                            safetyByDir[i] = 0;
-
-                        viableLoc[i] = rc.canMove(fromOrdinal(i)) && (enemies.length > 0
-                                || rc.getLocation()
-                                .add(fromOrdinal(i))
-                                .isWithinDistanceSquared(centerLoc, MAX_DIST_FROM_EC)
-                        );
-                        if (viableLoc[i])
-                            maxSafety = Math.max(maxSafety, safetyByDir[i]);
+                if (!rc.isReady()) return;
+
+                // score every move (and staying put) by how long the closest muckraker needs to
+                // reach us there, pulled slightly towards our protectors while one is in sight
+                MapLocation here = rc.getLocation();
+                boolean haveEC = centerID != rc.getID(); // not if it was converted
+                double[] scores = new double[9];
+                double bestScore = -Double.MAX_VALUE;
+                for (int i = 0; i < 9; i++) {
+                    Direction dir = fromOrdinal(i);
+                    if (dir != Direction.CENTER && !rc.canMove(dir)) {
+                        scores[i] = -Double.MAX_VALUE;
+                        continue;
                     }
-
-                    // Of the maximum safeties, pick the one with the highest passability.
-                    int dir = -1;
-                    double dirPassability = 0.0;
-                    for (int i = 0; i < 8; i++) {
-                        if (viableLoc[i] && Math.abs(safetyByDir[i] - maxSafety) < 0.5) {
-                            double passability = rc.sensePassability(rc.getLocation().add(fromOrdinal(i)));
-                            if (passability > dirPassability) {
-                                dirPassability = passability;
-                                dir = i;
-                            }
-                        }
+                    MapLocation loc = here.add(dir);
+                    if (numMucks == 0 && haveEC && !loc.isWithinDistanceSquared(centerLoc, MAX_DIST_FROM_EC)) {
+                        scores[i] = -Double.MAX_VALUE;
+                        continue;
+                    }
+                    scores[i] = timeToCapture(loc);
+                    if (numMucks > 0) scores[i] -= PROTECTOR_PULL * distanceToProtector(loc, haveEC);
+                    bestScore = Math.max(bestScore, scores[i]);
+                }
+                if (bestScore == -Double.MAX_VALUE) return;
+
+                // Of the best moves, pick the one with the highest passability (only sensing those).
+                int dir = -1;
+                double dirPassability = 0.0;
+                for (int i = 0; i < 9; i++) {
+                    if (scores[i] < bestScore - 0.5) continue;
+                    double passability = rc.sensePassability(here.add(fromOrdinal(i)));
+                    if (passability > dirPassability) {
+                        dirPassability = passability;
+                        dir = i;
                     }
-
-                    // Move in direction of max safety
-                    if (dir != -1) takeMove(fromOrdinal(dir));
                 }
+
+                if (dir != -1 && fromOrdinal(dir) != Direction.CENTER) takeMove(fromOrdinal(dir));
             }
         };
 
         public abstract void act() throws GameActionException; // Take a single action in accordance with the state
     }
 
+    /**
+     * Collects enemy muckrakers (with their move cooldowns) and friendly politicians from this
+     * turn's Sensing snapshot.
+     */
+    static void senseThreats() throws GameActionException {
+        if (muckLocs.length < nearby.length) {
+            muckLocs = new MapLocation[nearby.length];
+            muckCooldowns = new double[nearby.length];
+            protectorLocs = new MapLocation[nearby.length];
+        }
+        numMucks = Sensing.numEnemyMuckrakers;
+        for (int i = 0; i < numMucks; i++) {
+            muckLocs[i] = Sensing.enemyMuckrakers[i].getLocation();
+            muckCooldowns[i] = RobotType.MUCKRAKER.actionCooldown / rc.sensePassability(muckLocs[i]);
+        }
+        numProtectors = Sensing.numFriendlyPoliticians;
+        for (int i = 0; i < numProtectors; i++)
+            protectorLocs[i] = Sensing.friendlyPoliticians[i].getLocation();
+    }
+
+    /**
+     * Rounds until some muckraker we see could expose us at the given location: the moves it
+     * needs to get within its action radius, times its cooldown. Capped at CAPTURE_HORIZON.
+     */
+    static double timeToCapture(MapLocation loc) {
+        double best = CAPTURE_HORIZON;
+        for (int i = 0; i < numMucks; i++) {
+            int dx = Math.abs(muckLocs[i].x - loc.x), dy = Math.abs(muckLocs[i].y - loc.y);
+            int moves = 0;
+            while (dx * dx + dy * dy > RobotType.MUCKRAKER.actionRadiusSquared) {
+                if (dx > 0) dx--;
+                if (dy > 0) dy--;
+                moves++;
+            }
+            best = Math.min(best, moves * muckCooldowns[i]);
+        }
+        return best;
+    }
+
+    /**
+     * Tiles (king moves) to the closest friendly politician, or our EC if we still have it (0 if
+     * there is neither).
+     */
+    static int distanceToProtector(MapLocation loc, boolean haveEC) {
+        if (!haveEC && numProtectors == 0) return 0;
+        int best = haveEC ? Math.max(Math.abs(centerLoc.x - loc.x), Math.abs(centerLoc.y - loc.y)) : Integer.MAX_VALUE;
+        for (int i = 0; i < numProtectors; i++)
+            best = Math.min(best, Math.max(Math.abs(protectorLocs[i].x - loc.x), Math.abs(protectorLocs[i].y - loc.y)));
+        return best;
+    }
+
     static MapLocation randomHoverLocation(double radius) {
-        double angle = 2 * Math.PI * Math.random();
+        double angle = 2 * Math.PI * random();
         int x = (int) (radius * Math.cos(angle));
         int y = (int) (radius * Math.sin(angle));
         return centerLoc.translate(x, y);
@@ -0,0 +1,146 @@
+package quals;
+
+import battlecode.common.*;
+import quals.utils.NavHistory;
+
+import static quals.Robot.rc;
+
+/**
+ * Works out how the map is symmetric, to predict where the enemy EC is before anyone sees it.
+ * <p>
+ * Maps are symmetric by flipping x, flipping y or rotating, and the EC that built us has a
+ * twin at its reflection. Each candidate can be tested once we know the map bounds it needs
+ * (from NavHistory), against what we have seen so far:
+ * <ul>
+ *     <li>every EC we have seen (ours, the enemy's or neutral) has an EC at its reflection, and</li>
+ *     <li>every tile has the passability of its reflection. We keep samples: the tiles around
+ *     our EC, and the tiles we stand on every few rounds.</li>
+ * </ul>
+ * A reflection we can sense that doesn't match rules the candidate out. When only one
+ * candidate is left, its reflection of our EC is the prediction, which we report to the EC as
+ * an ENEMY_EC with influence bucket 0. Only starting ECs take it: the twin of a captured
+ * neutral is a neutral.
+ */
+public class Symmetry {
+    static final int FLIP_X = 1, FLIP_Y = 2, ROTATE = 4;
+    static final int REPORT_TURNS = 3; // other messages may overwrite the flag
+    static final int MAX_ECS = 8;
+    static final int MAX_SAMPLES = 32;
+    static final int SAMPLE_INTERVAL = 4; // rounds between samples of the tile we stand on
+    static final int CHECKS_PER_TURN = 4; // samples tested per turn
+
+    static int candidates = FLIP_X | FLIP_Y | ROTATE;
+    static MapLocation home = null; // the EC that built us
+
+    // ECs seen so far
+    static MapLocation[] ecLocs = new MapLocation[MAX_ECS];
+    static int numECs = 0;
+
+    // passability samples: the ones around home are kept, the others are overwritten in turn
+    static MapLocation[] sampleLocs = new MapLocation[MAX_SAMPLES];
+    static double[] samplePassability = new double[MAX_SAMPLES];
+    static int numSamples = 0;
+    static int numHomeSamples = 0;
+    static int nextSample = 0;
+    static int checkCursor = 0;
+
+    static MapLocation prediction = null;
+    static int reportTurns = 0;
+
+    /**
+     * Remembers the EC that built us, and the tiles around it. Call once, next to it.
+     */
+    static void init(MapLocation ecLoc) throws GameActionException {
+        home = ecLoc;
+        noteEC(ecLoc);
+        for (int i = 0; i < 8; i++) {
+            MapLocation loc = ecLoc.add(Robot.directions[i]);
+            if (rc.canSenseLocation(loc)) addSample(loc, rc.sensePassability(loc));
+        }
+        numHomeSamples = numSamples;
+        nextSample = numSamples;
+    }
+
+    /**
+     * @return the reflection of loc under the symmetry, or null if we don't know the bounds yet
+     */
+    static MapLocation reflect(MapLocation loc, int symmetry) {
+        int x = loc.x, y = loc.y;
+        if (symmetry != FLIP_Y) {
+            if (NavHistory.minX == NavHistory.UNKNOWN || NavHistory.maxX == NavHistory.UNKNOWN) return null;
+            x = NavHistory.minX + NavHistory.maxX - x;
+        }
+        if (symmetry != FLIP_X) {
+            if (NavHistory.minY == NavHistory.UNKNOWN || NavHistory.maxY == NavHistory.UNKNOWN) return null;
+            y = NavHistory.minY + NavHistory.maxY - y;
+        }
+        return new MapLocation(x, y);
+    }
+
+    /**
+     * Collects this turn's evidence, rules out the candidates it contradicts, and makes the
+     * prediction once a single one is left. Call every turn, after sensing.
+     */
+    static void update() throws GameActionException {
+        if (home == null || prediction != null) return;
+
+        for (int i = 0; i < Sensing.numFriendlyECs; i++) noteEC(Sensing.friendlyECs[i].getLocation());
+        for (int i = 0; i < Sensing.numEnemyECs; i++) noteEC(Sensing.enemyECs[i].getLocation());
+        for (int i = 0; i < Sensing.numNeutralECs; i++) noteEC(Sensing.neutralECs[i].getLocation());
+        if (rc.getRoundNum() % SAMPLE_INTERVAL == 0) {
+            MapLocation here = rc.getLocation();
+            addSample(here, rc.sensePassability(here));
+        }
+
+        int from = checkCursor;
+        checkCursor = numSamples == 0 ? 0 : (checkCursor + CHECKS_PER_TURN) % numSamples;
+        for (int s = FLIP_X; s <= ROTATE; s <<= 1) {
+            if ((candidates & s) != 0 && !consistent(s, from))
+                candidates &= ~s;
+        }
+
+        if (candidates == 0) { // the map isn't what we think: stop guessing
+            home = null;
+            return;
+        }
+        if (Integer.bitCount(candidates) == 1) {
+            prediction = reflect(home, candidates);
+            if (prediction != null) reportTurns = REPORT_TURNS;
+        }
+    }
+
+    /**
+     * @return whether the reflections we can sense of the ECs, and of CHECKS_PER_TURN samples
+     * starting at the given one, match
+     */
+    private static boolean consistent(int symmetry, int from) throws GameActionException {
+        for (int i = 0; i < numECs; i++) {
+            MapLocation twin = reflect(ecLocs[i], symmetry);
+            if (twin == null) return true; // no bounds, no test
+            if (!rc.canSenseLocation(twin)) continue;
+            RobotInfo info = rc.senseRobotAtLocation(twin);
+            if (info == null || info.type != RobotType.ENLIGHTENMENT_CENTER) return false;
+        }
+        for (int k = 0; k < CHECKS_PER_TURN && k < numSamples; k++) {
+            int i = (from + k) % numSamples;
+            MapLocation twin = reflect(sampleLocs[i], symmetry);
+            if (twin != null && rc.canSenseLocation(twin) && rc.sensePassability(twin) != samplePassability[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static void noteEC(MapLocation loc) {
+        if (numECs == MAX_ECS) return;
+        for (int i = 0; i < numECs; i++)
+            if (ecLocs[i].equals(loc)) return;
+        ecLocs[numECs++] = loc;
+    }
+
+    private static void addSample(MapLocation loc, double passability) {
+        sampleLocs[nextSample] = loc;
+        samplePassability[nextSample] = passability;
+        if (numSamples < MAX_SAMPLES) numSamples++;
+        nextSample = nextSample + 1 < MAX_SAMPLES ? nextSample + 1 : numHomeSamples;
+    }
+}
@@ -22,7 +22,13 @@ commands = [
     Command("DANGER_INFO", [7, 7, 5]),
     Command("UNCLOG", []),
     Command("SLANDERER", []),
-    Command("SLANDERERS_SEEN", [7,7])
+    Command("SLANDERERS_SEEN", [7,7]),
+    Command("CAPTURE", [7, 7]),  # (neutral ec loc)
+    Command("ASSAULT", [7, 7, 5, 3]),  # (enemy ec loc, strike round / 4 % 32, slot direction)
+    Command("INTERCEPT", [7, 7, 7]),  # (muckraker loc, defender id % 128)
+    Command("BLOCKADE", [7, 7, 3]),  # (enemy ec loc, slot direction)
+    Command("MAP_EDGE", [2, 7]),  # (edge: north, east, south, west, last coordinate on the map)
+    Command("EXPLORE_SECTOR", [7, 7]),  # (center of the cell to explore)
 ]
 
 #########################################
@@ -27,9 +27,16 @@ chunk_string = (
 
 code = f"""
     public static MapLocation nearestUnexploredLocation() {{
-        int RAND = (int) (Math.random() * 1024);
+        return nearestUnexploredLocation(Robot.rc.getLocation());
+    }}
+
+    /**
+     * @param m where to search from (the chunk of m itself is skipped)
+     * @return the closest unvisited chunk to m, in random order among equally close ones
+     */
+    public static MapLocation nearestUnexploredLocation(MapLocation m) {{
+        int RAND = Robot.randomInt(1024);
 
-        MapLocation m = Robot.rc.getLocation();
         int cx = ((m.x - Robot.initLoc.x) / 4) + 15;
         int cy = ((m.y - Robot.initLoc.y) / 4) + 15;
 """
@@ -46,8 +53,10 @@ for i, dist in enumerate(sorted(by_dist.keys())):
 
 
 code += f"""
-        return null;
-}}
+        // We have no more chunks to visit- wipe and try again:
+        keys = new StringBuilder();
+        return nearestUnexploredLocation(m);
+    }}
 
     private static final int[][][] CHUNKS = {chunk_string};"""
 
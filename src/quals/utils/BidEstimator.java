@@ -0,0 +1,136 @@
+package quals.utils;
+
+/**
+ * Keeps a running posterior over the opponent's bid, built from whether each of
+ * our bids won or lost. Bids are bucketed into roughly geometric bins, so small
+ * bids are resolved exactly while large ones share a bin.
+ * <p>
+ * The opponent's bid drifts over the course of a game, so every round a bit of
+ * mass is blurred into neighbouring bins and mixed back towards the prior.
+ */
+public class BidEstimator {
+    // bin i covers the opponent bids [BIN_UPPER[i - 1], BIN_UPPER[i]) (bin 0 is a zero bid)
+    static final int[] BIN_UPPER = {1, 2, 3, 4, 5, 6, 7, 8, 10, 12, 14, 16, 20, 24, 28, 32, 40, 48, 56, 64, 80, 96,
+            112, 128, 160, 192, 224, 256, 320, 384, 448, 512, 640, 768, 896, 1024, 1280, 1536, 2048, 3072, 4096, 8192};
+    static final int BINS = BIN_UPPER.length;
+
+    static final double PRIOR_DECAY = 0.8; // prior mass of bin i is proportional to PRIOR_DECAY^i
+    static final double NOISE = 0.05; // likelihood of an observation that contradicts a bin
+    static final double BLUR = 0.05; // mass moved to each neighbouring bin per round
+    static final double FORGET = 0.01; // mass mixed back towards the prior per round
+
+    private final double[] prior = new double[BINS];
+    private final double[] mass = new double[BINS];
+
+    public BidEstimator() {
+        double total = 0;
+        double weight = 1;
+        for (int i = 0; i < BINS; i++) {
+            prior[i] = weight;
+            total += weight;
+            weight *= PRIOR_DECAY;
+        }
+        for (int i = 0; i < BINS; i++) {
+            prior[i] /= total;
+            mass[i] = prior[i];
+        }
+    }
+
+    /**
+     * Folds in the outcome of one of our bids. A win means the opponent bid strictly
+     * less than us, a loss (or tie) means they bid at least as much.
+     *
+     * @param bid the amount we bid (must be positive to carry any information)
+     * @param won whether our team gained a vote from it
+     */
+    public void observe(int bid, boolean won) {
+        if (bid <= 0) return;
+
+        double total = 0;
+        int lower = 0;
+        for (int i = 0; i < BINS; i++) {
+            int upper = BIN_UPPER[i];
+            // fraction of the bin that is consistent with a win
+            double below;
+            if (upper <= bid) below = 1;
+            else if (lower >= bid) below = 0;
+            else below = (double) (bid - lower) / (upper - lower);
+
+            double consistent = won ? below : 1 - below;
+            mass[i] *= NOISE + (1 - 2 * NOISE) * consistent;
+            total += mass[i];
+            lower = upper;
+        }
+        normalize(total);
+    }
+
+    /**
+     * Lets the estimate drift between rounds: blurs mass into neighbouring bins and
+     * mixes a little of the prior back in. Call once per round.
+     */
+    public void decay() {
+        double prev = 0; // mass[i - 1] before blurring
+        for (int i = 0; i < BINS; i++) {
+            double current = mass[i];
+            double next = i + 1 < BINS ? mass[i + 1] : 0;
+            int neighbours = (i == 0 || i == BINS - 1) ? 1 : 2;
+            mass[i] = current * (1 - neighbours * BLUR) + (prev + next) * BLUR;
+            prev = current;
+        }
+        double total = 0;
+        for (int i = 0; i < BINS; i++) {
+            mass[i] = (1 - FORGET) * mass[i] + FORGET * prior[i];
+            total += mass[i];
+        }
+        normalize(total);
+    }
+
+    /**
+     * The probability that a given bid beats the opponent, under the current estimate.
+     */
+    public double winProbability(int bid) {
+        double p = 0;
+        int lower = 0;
+        for (int i = 0; i < BINS; i++) {
+            int upper = BIN_UPPER[i];
+            if (upper <= bid) p += mass[i];
+            else {
+                if (lower < bid) p += mass[i] * (bid - lower) / (upper - lower);
+                break;
+            }
+            lower = upper;
+        }
+        return p;
+    }
+
+    /**
+     * The smallest bid that wins with at least the target probability.
+     *
+     * @param target the desired probability of winning the round, in (0, 1)
+     * @return the bid to make (at least 1)
+     */
+    public int smallestBidFor(double target) {
+        double p = 0;
+        int lower = 0;
+        for (int i = 0; i < BINS; i++) {
+            int upper = BIN_UPPER[i];
+            if (p + mass[i] >= target) {
+                // interpolate inside of the bin
+                double needed = mass[i] <= 0 ? 0 : (target - p) / mass[i];
+                return Math.max(1, lower + (int) Math.ceil(needed * (upper - lower)));
+            }
+            p += mass[i];
+            lower = upper;
+        }
+        return BIN_UPPER[BINS - 1];
+    }
+
+    private void normalize(double total) {
+        if (total <= 0) {
+            System.arraycopy(prior, 0, mass, 0, BINS);
+            return;
+        }
+        for (int i = 0; i < BINS; i++)
+            mass[i] /= total;
+    }
+}
@@ -0,0 +1,113 @@
+package quals.utils;
+
+import battlecode.common.MapLocation;
+import battlecode.common.Team;
+
+/**
+ * Everything an EC knows about the other ECs on the map, keyed by their packed location.
+ * Lookups go through a string of keys (one char per entry), so they cost a single indexOf
+ * no matter how many ECs have been found. Storage doubles once the initial capacity fills.
+ */
+public class ECRegistry {
+    static final int INITIAL_CAPACITY = 12;
+
+    private final StringBuilder keys = new StringBuilder();
+
+    public int size = 0;
+    public MapLocation[] locs = new MapLocation[INITIAL_CAPACITY];
+    public Team[] teams = new Team[INITIAL_CAPACITY];
+    public int[] influence = new int[INITIAL_CAPACITY]; // last reported influence, -1 if unknown
+    public int[] lastSeen = new int[INITIAL_CAPACITY]; // round of the last report
+    public int[] teamsSeen = new int[INITIAL_CAPACITY]; // bitmask of every Team (by ordinal) reported
+    public boolean[] predicted = new boolean[INITIAL_CAPACITY]; // inferred from symmetry, not seen yet
+
+    private static char key(MapLocation loc) {
+        return (char) ((loc.x % 128) * 128 + (loc.y % 128));
+    }
+
+    /**
+     * @return the index of the EC at this location, or -1 if we don't know of one.
+     */
+    public int indexOf(MapLocation loc) {
+        return keys.indexOf(String.valueOf(key(loc)));
+    }
+
+    /**
+     * Adds a new EC, or refreshes what we know about an existing one.
+     *
+     * @param influence the reported influence, or -1 to keep the previous estimate
+     * @return the index of the EC
+     */
+    public int update(MapLocation loc, Team team, int influence, int round) {
+        int idx = indexOf(loc);
+        if (idx == -1) {
+            if (size == locs.length) grow();
+            idx = size++;
+            keys.append(key(loc));
+            locs[idx] = loc;
+            this.influence[idx] = -1;
+        }
+        teams[idx] = team;
+        teamsSeen[idx] |= 1 << team.ordinal();
+        if (influence >= 0) this.influence[idx] = influence;
+        lastSeen[idx] = round;
+        predicted[idx] = false;
+        return idx;
+    }
+
+    /**
+     * Adds an EC we expect from the map's symmetry, unless we already know of one there. Its
+     * influence stays unknown until someone sees it.
+     */
+    public void predict(MapLocation loc, Team team, int round) {
+        if (indexOf(loc) != -1) return;
+        int idx = update(loc, team, -1, round);
+        predicted[idx] = true;
+    }
+
+    /**
+     * @return how many rounds it has been since anyone confirmed this EC.
+     */
+    public int staleness(int idx, int round) {
+        return round - lastSeen[idx];
+    }
+
+    /**
+     * Whether the EC has ever been reported as belonging to the given team.
+     */
+    public boolean wasOnTeam(int idx, Team team) {
+        return (teamsSeen[idx] & (1 << team.ordinal())) != 0;
+    }
+
+    /**
+     * Best guess of the EC's influence now: player ECs keep collecting passive income
+     * after we last saw them, neutral ones don't.
+     */
+    public int estimateInfluence(int idx, int round) {
+        int estimate = Math.max(influence[idx], 0);
+        if (teams[idx] == Team.NEUTRAL) return estimate;
+        return estimate + (int) Math.ceil(0.2 * Math.sqrt(round)) * staleness(idx, round);
+    }
+
+    private void grow() {
+        int capacity = locs.length * 2;
+        MapLocation[] newLocs = new MapLocation[capacity];
+        Team[] newTeams = new Team[capacity];
+        int[] newInfluence = new int[capacity];
+        int[] newLastSeen = new int[capacity];
+        int[] newTeamsSeen = new int[capacity];
+        boolean[] newPredicted = new boolean[capacity];
+        System.arraycopy(locs, 0, newLocs, 0, size);
+        System.arraycopy(teams, 0, newTeams, 0, size);
+        System.arraycopy(influence, 0, newInfluence, 0, size);
+        System.arraycopy(lastSeen, 0, newLastSeen, 0, size);
+        System.arraycopy(teamsSeen, 0, newTeamsSeen, 0, size);
+        System.arraycopy(predicted, 0, newPredicted, 0, size);
+        locs = newLocs;
+        teams = newTeams;
+        influence = newInfluence;
+        lastSeen = newLastSeen;
+        teamsSeen = newTeamsSeen;
+        predicted = newPredicted;
+    }
+}
@@ -17,6 +17,17 @@ public class NavHistory {
     private static int southEdge = -100;
     private static int westEdge = -100;
 
+    // exact bounds: the last coordinate on the map in each direction
+    public static final int UNKNOWN = -1;
+    public static int maxY = UNKNOWN;
+    public static int maxX = UNKNOWN;
+    public static int minY = UNKNOWN;
+    public static int minX = UNKNOWN;
+
+    // edges, as sent in MAP_EDGE messages
+    public static final int NORTH = 0, EAST = 1, SOUTH = 2, WEST = 3;
+    public static int foundEdges = 0; // bitmask of edges we found ourselves and haven't reported
+
 
     /**
      * Inits the random var and the sight range.
@@ -31,21 +42,21 @@ public class NavHistory {
     public static void update() throws GameActionException {
         MapLocation m = Robot.rc.getLocation();
 
-        if (northEdge == 100 && !Robot.rc.onTheMap(m.translate(0, SIGHT_RANGE))) {
-            northEdge = ((m.y + SIGHT_RANGE - Robot.initLoc.y) / 4) + 15;
-            if ((m.y + SIGHT_RANGE - Robot.initLoc.y) % 4 != 0) ++northEdge;
+        if (maxY == UNKNOWN && !Robot.rc.onTheMap(m.translate(0, SIGHT_RANGE))) {
+            setEdge(NORTH, m.y + lastOnMap(m, 0, 1));
+            foundEdges |= 1 << NORTH;
         }
-        if (southEdge == -100 && !Robot.rc.onTheMap(m.translate(0, -1 * SIGHT_RANGE))) {
-            southEdge = ((m.y - SIGHT_RANGE - Robot.initLoc.y) / 4) + 15;
-            if ((m.y - SIGHT_RANGE - Robot.initLoc.y) % 4 != 0) --southEdge;
+        if (minY == UNKNOWN && !Robot.rc.onTheMap(m.translate(0, -1 * SIGHT_RANGE))) {
+            setEdge(SOUTH, m.y - lastOnMap(m, 0, -1));
+            foundEdges |= 1 << SOUTH;
         }
-        if (eastEdge == 100 && !Robot.rc.onTheMap(m.translate(SIGHT_RANGE, 0))) {
-            eastEdge = ((m.x + SIGHT_RANGE - Robot.initLoc.x) / 4) + 15;
-            if ((m.x + SIGHT_RANGE - Robot.initLoc.x) % 4 != 0) ++eastEdge;
+        if (maxX == UNKNOWN && !Robot.rc.onTheMap(m.translate(SIGHT_RANGE, 0))) {
+            setEdge(EAST, m.x + lastOnMap(m, 1, 0));
+            foundEdges |= 1 << EAST;
         }
-        if (westEdge == -100 && !Robot.rc.onTheMap(m.translate(-1 * SIGHT_RANGE, 0))) {
-            westEdge = ((m.x - SIGHT_RANGE - Robot.initLoc.x) / 4) + 15;
-            if ((m.x - SIGHT_RANGE - Robot.initLoc.x) % 4 != 0) --westEdge;
+        if (minX == UNKNOWN && !Robot.rc.onTheMap(m.translate(-1 * SIGHT_RANGE, 0))) {
+            setEdge(WEST, m.x - lastOnMap(m, -1, 0));
+            foundEdges |= 1 << WEST;
         }
 
         // mark current location as visited.
@@ -57,6 +68,71 @@ public class NavHistory {
             keys.append(key);
     }
 
+    /**
+     * Records an edge, found by us or by a teammate: chunks past it count as visited.
+     *
+     * @param coord the last coordinate on the map in the edge's direction
+     */
+    public static void setEdge(int edge, int coord) {
+        int off; // from initLoc to the first coordinate off the map
+        switch (edge) {
+            case NORTH:
+                if (maxY != UNKNOWN) return;
+                maxY = coord;
+                off = coord + 1 - Robot.initLoc.y;
+                northEdge = off / 4 + 15;
+                if (off % 4 != 0) ++northEdge;
+                break;
+            case EAST:
+                if (maxX != UNKNOWN) return;
+                maxX = coord;
+                off = coord + 1 - Robot.initLoc.x;
+                eastEdge = off / 4 + 15;
+                if (off % 4 != 0) ++eastEdge;
+                break;
+            case SOUTH:
+                if (minY != UNKNOWN) return;
+                minY = coord;
+                off = coord - 1 - Robot.initLoc.y;
+                southEdge = off / 4 + 15;
+                if (off % 4 != 0) --southEdge;
+                break;
+            case WEST:
+                if (minX != UNKNOWN) return;
+                minX = coord;
+                off = coord - 1 - Robot.initLoc.x;
+                westEdge = off / 4 + 15;
+                if (off % 4 != 0) --westEdge;
+                break;
+        }
+    }
+
+    /**
+     * @return the edge's coordinate (see setEdge), or UNKNOWN
+     */
+    public static int edge(int edge) {
+        switch (edge) {
+            case NORTH:
+                return maxY;
+            case EAST:
+                return maxX;
+            case SOUTH:
+                return minY;
+            default:
+                return minX;
+        }
+    }
+
+    /**
+     * @return how many steps in the direction are still on the map (less than SIGHT_RANGE, when
+     * the tile SIGHT_RANGE away is off it)
+     */
+    private static int lastOnMap(MapLocation m, int dx, int dy) throws GameActionException {
+        int d = SIGHT_RANGE - 1;
+        while (d > 0 && !Robot.rc.onTheMap(m.translate(d * dx, d * dy))) d--;
+        return d;
+    }
+
     /**
      * Forces a location to be marked as visited. Used for when the pathing
      * is unable to get to a certain location...
@@ -96,9 +172,16 @@ public class NavHistory {
     }
 
     public static MapLocation nearestUnexploredLocation() {
-        int RAND = (int) (Math.random() * 1024);
+        return nearestUnexploredLocation(Robot.rc.getLocation());
+    }
+
+    /**
+     * @param m where to search from (the chunk of m itself is skipped)
+     * @return the closest unvisited chunk to m, in random order among equally close ones
+     */
+    public static MapLocation nearestUnexploredLocation(MapLocation m) {
+        int RAND = Robot.randomInt(1024);
 
-        MapLocation m = Robot.rc.getLocation();
         int cx = ((m.x - Robot.initLoc.x) / 4) + 15;
         int cy = ((m.y - Robot.initLoc.y) / 4) + 15;
 
@@ -618,7 +701,7 @@ public class NavHistory {
 
         // We have no more chunks to visit- wipe and try again:
         keys = new StringBuilder();
-        return nearestUnexploredLocation();
+        return nearestUnexploredLocation(m);
     }
 
     private static final int[][][] CHUNKS = {{{-1, 0}, {0, -1}, {0, 1}, {1, 0}}, {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}},
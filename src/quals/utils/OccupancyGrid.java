@@ -0,0 +1,65 @@
+package quals.utils;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotInfo;
+
+/**
+ * Which tiles around us hold a robot, as bits over the 11x11 square centered on us (two longs).
+ * Build it once per turn from an already sensed robot array, then test tiles with bit ops
+ * instead of calling rc.isLocationOccupied.
+ * <p>
+ * Only tiles within the radius the grid was built with are known: everything else counts as
+ * occupied. Tiles off the map are not known to be off it.
+ */
+public class OccupancyGrid {
+    static final int HALF = 5;
+    static final int SIDE = 2 * HALF + 1;
+
+    private MapLocation center;
+    private int knownRadius = -1;
+    private long knownLow, knownHigh; // tiles within the radius (only depends on the radius)
+    private long takenLow, takenHigh; // tiles holding a robot
+
+    /**
+     * @param center  our location (occupied by us)
+     * @param robots  every robot within radiusSquared of center
+     */
+    public void build(MapLocation center, RobotInfo[] robots, int radiusSquared) {
+        this.center = center;
+        if (radiusSquared != knownRadius) {
+            knownRadius = radiusSquared;
+            knownLow = knownHigh = 0;
+            for (int dx = -HALF; dx <= HALF; dx++)
+                for (int dy = -HALF; dy <= HALF; dy++)
+                    if (dx * dx + dy * dy <= radiusSquared) {
+                        int bit = (dx + HALF) * SIDE + dy + HALF;
+                        if (bit < 64) knownLow |= 1L << bit;
+                        else knownHigh |= 1L << (bit - 64);
+                    }
+        }
+
+        takenLow = takenHigh = 0;
+        set(center);
+        for (RobotInfo info : robots)
+            set(info.getLocation());
+    }
+
+    private void set(MapLocation loc) {
+        int dx = loc.x - center.x, dy = loc.y - center.y;
+        if (dx < -HALF || dx > HALF || dy < -HALF || dy > HALF) return;
+        int bit = (dx + HALF) * SIDE + dy + HALF;
+        if (bit < 64) takenLow |= 1L << bit;
+        else takenHigh |= 1L << (bit - 64);
+    }
+
+    /**
+     * @return whether the tile is within the grid's radius and holds no robot.
+     */
+    public boolean isFree(MapLocation loc) {
+        int dx = loc.x - center.x, dy = loc.y - center.y;
+        if (dx < -HALF || dx > HALF || dy < -HALF || dy > HALF) return false;
+        int bit = (dx + HALF) * SIDE + dy + HALF;
+        if (bit < 64) return ((knownLow & ~takenLow) >>> bit & 1) != 0;
+        return ((knownHigh & ~takenHigh) >>> (bit - 64) & 1) != 0;
+    }
+}
@@ -0,0 +1,72 @@
+package quals.utils;
+
+import battlecode.common.Clock;
+import quals.Robot;
+
+/**
+ * Bytecodes spent per named section, for finding hot paths.
+ * <p>
+ * <b>Usage:</b>
+ * Wrap a section in `if (Profiler.ENABLED) Profiler.start(SECTION)` ... `stop(SECTION)`. ENABLED
+ * is a compile-time constant, so with it off javac drops the calls and profiling costs nothing.
+ * Robot.endTurn calls report(), which every REPORT_INTERVAL rounds prints one line:
+ * <pre>
+ *     @@@PROF TYPE section:max:h0.h1.h2... section:...
+ * </pre>
+ * where h[k] counts the runs that took [2^(k-1), 2^k) bytecodes (h0: none). scripts/profile.py
+ * aggregates these lines over units and matches.
+ * <p>
+ * Sections can span rounds (a turn that went over the limit) and nest, but not recurse.
+ */
+public class Profiler {
+    public static final boolean ENABLED = false;
+    public static final int REPORT_INTERVAL = 100;
+
+    public static final int TURN = 0, SENSE = 1, PROCESS_FLAGS = 2, NAV_TICK = 3, EMPOWER_EFFICIENCY = 4,
+            BACKGROUND = 5;
+    static final String[] NAMES = {"turn", "sense", "processFlags", "Nav.tick", "empowerEfficiency", "background"};
+    static final int SECTIONS = NAMES.length;
+    static final int BUCKETS = 18; // up to 2^17 bytecodes, several turns' worth
+
+    private static final int[] startRound = new int[SECTIONS];
+    private static final int[] startNum = new int[SECTIONS];
+    private static final int[] max = new int[SECTIONS];
+    private static final int[] histogram = new int[SECTIONS * BUCKETS];
+    private static int lastReport = -1;
+
+    public static void start(int section) {
+        startRound[section] = Robot.rc.getRoundNum();
+        startNum[section] = Clock.getBytecodeNum();
+    }
+
+    public static void stop(int section) {
+        int rounds = Robot.rc.getRoundNum() - startRound[section];
+        int used = Clock.getBytecodeNum() - startNum[section] + rounds * Robot.rc.getType().bytecodeLimit;
+        if (used > max[section]) max[section] = used;
+        histogram[section * BUCKETS + Math.min(32 - Integer.numberOfLeadingZeros(used), BUCKETS - 1)]++;
+    }
+
+    /**
+     * Prints and clears what was recorded, every REPORT_INTERVAL rounds.
+     */
+    public static void report() {
+        int round = Robot.rc.getRoundNum();
+        if (round % REPORT_INTERVAL != 0 || round == lastReport) return;
+        lastReport = round;
+
+        StringBuilder line = new StringBuilder("@@@PROF ").append(Robot.rc.getType());
+        for (int s = 0; s < SECTIONS; s++) {
+            if (max[s] == 0 && histogram[s * BUCKETS] == 0) continue; // never ran
+            line.append(' ').append(NAMES[s]).append(':').append(max[s]).append(':');
+            int last = BUCKETS - 1; // trailing empty buckets are left out
+            while (last > 0 && histogram[s * BUCKETS + last] == 0) last--;
+            for (int b = 0; b <= last; b++) {
+                if (b > 0) line.append('.');
+                line.append(histogram[s * BUCKETS + b]);
+                histogram[s * BUCKETS + b] = 0;
+            }
+            max[s] = 0;
+        }
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,46 @@
+package quals.utils;
+
+/**
+ * What a unit last reported about each EC it has seen, keyed by robot ID: an open addressing
+ * hash table (linear probing) over fixed arrays. An EC only needs reporting again when its
+ * team or influence bucket changes.
+ */
+public class SeenECTable {
+    static final int CAPACITY = 64; // power of two, well above the number of ECs on a map
+    static final int MASK = CAPACITY - 1;
+
+    private final int[] ids = new int[CAPACITY]; // 0 for empty slots (robot IDs are positive)
+    private final int[] reported = new int[CAPACITY]; // team ordinal << 8 | influence bucket
+
+    /**
+     * Records what we are about to report for an EC.
+     *
+     * @return whether that differs from the last report (always true for a new EC)
+     */
+    public boolean update(int id, int teamOrdinal, int bucket) {
+        int state = teamOrdinal << 8 | bucket;
+        int slot = id & MASK;
+        for (int probes = 0; probes < CAPACITY; probes++) {
+            if (ids[slot] == id) {
+                if (reported[slot] == state) return false;
+                reported[slot] = state;
+                return true;
+            }
+            if (ids[slot] == 0) {
+                ids[slot] = id;
+                reported[slot] = state;
+                return true;
+            }
+            slot = (slot + 1) & MASK;
+        }
+        return true; // full: report, but don't remember
+    }
+
+    /**
+     * @return the influence bucket of a conviction: floor(log2) + 1, capped. At least 1, since
+     * bucket 0 marks a predicted EC (see Symmetry).
+     */
+    public static int bucket(int conviction, int maxBucket) {
+        return Math.min(Math.max(32 - Integer.numberOfLeadingZeros(conviction), 1), maxBucket);
+    }
+}
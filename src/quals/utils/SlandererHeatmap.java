@@ -0,0 +1,123 @@
+package quals.utils;
+
+import battlecode.common.MapLocation;
+
+/**
+ * Where enemy slanderers have been seen, on a coarse grid of CELL x CELL tiles (by location mod
+ * 128, like our messages). Sightings fade over time, and so do claims: every muckraker we send to
+ * a cell makes it less attractive to the next one, so they spread over the hot cells.
+ * <p>
+ * Decay is applied lazily, when a cell is touched. Only cells with heat are scanned.
+ */
+public class SlandererHeatmap {
+    public static final int CELL = 8;
+    public static final int GRID = 128 / CELL;
+    static final int MAX_ACTIVE = 24;
+    static final double HEAT_DECAY = 0.98; // per round: a sighting halves in ~35 rounds
+    static final double CLAIM_DECAY = 0.97; // muckrakers get there (or die) in ~25 rounds
+    static final double MIN_HEAT = 0.2;
+
+    private final double[] heat = new double[GRID * GRID];
+    private final double[] claims = new double[GRID * GRID];
+    private final int[] updated = new int[GRID * GRID];
+
+    // cells with heat, one char each
+    private final StringBuilder active = new StringBuilder();
+
+    private void refresh(int cell, int round) {
+        int elapsed = round - updated[cell];
+        if (elapsed == 0) return;
+        heat[cell] *= Math.pow(HEAT_DECAY, elapsed);
+        claims[cell] *= Math.pow(CLAIM_DECAY, elapsed);
+        updated[cell] = round;
+    }
+
+    public static int cellOf(int xMod, int yMod) {
+        return (xMod / CELL) * GRID + yMod / CELL;
+    }
+
+    /**
+     * Records a sighting at the given location (coordinates mod 128).
+     */
+    public void addSighting(int xMod, int yMod, int round) {
+        int cell = cellOf(xMod, yMod);
+        String key = String.valueOf((char) cell);
+        if (active.indexOf(key) == -1) {
+            if (active.length() == MAX_ACTIVE && !evictColdest(round)) return;
+            active.append(key);
+        }
+        refresh(cell, round);
+        heat[cell] += 1;
+    }
+
+    /**
+     * Forgets the active cell with the least heat, unless they all have more than a sighting.
+     *
+     * @return whether a cell was forgotten
+     */
+    private boolean evictColdest(int round) {
+        int coldest = -1;
+        double coldestHeat = 1; // a fresh sighting
+        for (int i = active.length(); --i >= 0; ) {
+            int cell = active.charAt(i);
+            refresh(cell, round);
+            if (heat[cell] < coldestHeat) {
+                coldestHeat = heat[cell];
+                coldest = i;
+            }
+        }
+        if (coldest == -1) return false;
+        heat[active.charAt(coldest)] = 0;
+        active.deleteCharAt(coldest);
+        return true;
+    }
+
+    public void addSighting(MapLocation loc, int round) {
+        addSighting(loc.x % 128, loc.y % 128, round);
+    }
+
+    /**
+     * @return the cell with the most heat per claim, or -1 if no cell is hot. Cold cells are
+     * forgotten along the way.
+     */
+    public int bestCell(int round) {
+        int best = -1;
+        double bestScore = MIN_HEAT;
+        for (int i = active.length(); --i >= 0; ) {
+            int cell = active.charAt(i);
+            refresh(cell, round);
+            if (heat[cell] < MIN_HEAT) {
+                active.deleteCharAt(i);
+                continue;
+            }
+            double score = heat[cell] / (1 + claims[cell]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Notes that a muckraker was sent to the cell.
+     */
+    public void claim(int cell, int round) {
+        refresh(cell, round);
+        claims[cell] += 1;
+    }
+
+    /**
+     * @return the x coordinate (mod 128) of the cell's center
+     */
+    public static int centerX(int cell) {
+        return (cell / GRID) * CELL + CELL / 2;
+    }
+
+    /**
+     * @return the y coordinate (mod 128) of the cell's center
+     */
+    public static int centerY(int cell) {
+        return (cell % GRID) * CELL + CELL / 2;
+    }
+}
@@ -0,0 +1,215 @@
+package bidsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Offline tuning harness for bidding. A port of scripts/bidder_testing/simulator.py that plays
+ * a player's real BidController (instead of a python copy of it) against scripted opponents,
+ * over thousands of simulated games in parallel.
+ * <p>
+ * Usage (via gradle: `./gradlew simulateBids -PbidArgs="..."`):
+ * <pre>
+ *   --player quals                       package whose BidController to play
+ *   --opponents constant:20,max,bot:quals comma separated opponent strategies (see BidStrategy.parse)
+ *   --set KEEP_UP_TARGET=0.5,0.6,0.7     sweep a static field of BidController (repeatable)
+ *   --games 1000                         games per configuration
+ *   --rounds 1500                        rounds per game
+ *   --seed 0                             base seed for the simulated economy
+ * </pre>
+ * Prints the win rate and average influence spent on bids for every configuration.
+ */
+public class BidSimulator {
+    // economy model, kept in line with simulator.py
+    static final int START_INFLUENCE = 150;
+    static final double MIN_WEALTH_MU = 0.12;
+    static final double MAX_WEALTH = 0.3;
+    static final double MAX_WEALTH_MU = MAX_WEALTH - MIN_WEALTH_MU;
+    static final double SIGMA = MAX_WEALTH / 10;
+    static final int WEALTH_STEPS = 3;
+
+    static String player = "quals";
+    static String[] opponents = {"constant:20", "max", "bot:quals"};
+    static List<String[]> sweeps = new ArrayList<>();
+    static int games = 1000;
+    static int rounds = 1500;
+    static long seed = 0;
+
+    /**
+     * Outcome of a batch of games, from our player's point of view.
+     */
+    static class Tally {
+        int games, wins, ties;
+        long spent, votes;
+
+        Tally add(Tally other) {
+            games += other.games;
+            wins += other.wins;
+            ties += other.ties;
+            spent += other.spent;
+            votes += other.votes;
+            return this;
+        }
+    }
+
+    public static void main(String[] args) {
+        parseArgs(args);
+
+        List<String[]> configs = new ArrayList<>();
+        expand(0, new String[sweeps.size()], configs);
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("%-40s %-16s %8s %8s %10s %8s%n", "config", "opponent", "win%", "tie%", "spent", "votes");
+        for (String[] config : configs) {
+            for (String opponent : opponents) {
+                Tally t = pool.invoke(new Games(config, opponent, 0, games));
+                System.out.printf("%-40s %-16s %7.2f%% %7.2f%% %10.1f %8.1f%n",
+                        config.length == 0 ? "(defaults)" : String.join(" ", config), opponent,
+                        100.0 * t.wins / t.games, 100.0 * t.ties / t.games,
+                        (double) t.spent / t.games, (double) t.votes / t.games);
+            }
+        }
+    }
+
+    /**
+     * Splits a range of game indices across the fork/join pool.
+     */
+    @SuppressWarnings("serial") // never serialized
+    static class Games extends RecursiveTask<Tally> {
+        static final int THRESHOLD = 16;
+
+        final String[] config;
+        final String opponent;
+        final int from, to;
+
+        Games(String[] config, String opponent, int from, int to) {
+            this.config = config;
+            this.opponent = opponent;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= THRESHOLD) {
+                Tally t = new Tally();
+                for (int i = from; i < to; i++)
+                    playGame(i, config, opponent, t);
+                return t;
+            }
+            int mid = (from + to) >>> 1;
+            Games left = new Games(config, opponent, from, mid);
+            left.fork();
+            Tally right = new Games(config, opponent, mid, to).compute();
+            return right.add(left.join());
+        }
+    }
+
+    static void playGame(int index, String[] config, String opponent, Tally t) {
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003 + index);
+        double aMu = wealthMu(index % WEALTH_STEPS);
+        double bMu = wealthMu((index / WEALTH_STEPS) % WEALTH_STEPS);
+        double aWealth = clamp(aMu + SIGMA * gaussian(random), 0, MAX_WEALTH);
+        double bWealth = clamp(bMu + SIGMA * gaussian(random), 0, MAX_WEALTH);
+
+        BidStrategy a = new BotBidder(player, config, BotBidder.PLAYER_ID);
+        BidStrategy b = BidStrategy.parse(opponent);
+        int aInf = START_INFLUENCE, bInf = START_INFLUENCE;
+        int aVotes = 0, bVotes = 0;
+        long spent = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            int aBid = Math.max(Math.min(a.bid(round, aInf, aVotes), aInf), 0);
+            int bBid = Math.max(Math.min(b.bid(round, bInf, bVotes), bInf), 0);
+
+            // the winner pays their bid, everyone else loses half of theirs
+            int aCost = aBid > bBid ? aBid : (aBid + 1) / 2;
+            int bCost = bBid > aBid ? bBid : (bBid + 1) / 2;
+            aInf -= aCost;
+            bInf -= bCost;
+            spent += aCost;
+            if (aBid > bBid) aVotes++;
+            else if (bBid > aBid) bVotes++;
+            a.result(aBid > bBid);
+            b.result(bBid > aBid);
+
+            aInf += income(aInf, aWealth, round + 1);
+            bInf += income(bInf, bWealth, round + 1);
+        }
+
+        t.games++;
+        if (aVotes > bVotes) t.wins++;
+        else if (aVotes == bVotes) t.ties++;
+        t.spent += spent;
+        t.votes += aVotes;
+    }
+
+    static int income(int influence, double wealth, int round) {
+        // slanderer income (approximated), plus the EC's passive income
+        return (int) ((wealth * influence / (1 - wealth)) * 0.025) + (int) Math.ceil(0.2 * Math.sqrt(round));
+    }
+
+    /* Helpers */
+
+    static double wealthMu(int step) {
+        return MIN_WEALTH_MU + (MAX_WEALTH_MU - MIN_WEALTH_MU) * step / (WEALTH_STEPS - 1);
+    }
+
+    static double gaussian(SplittableRandom random) {
+        // Box-Muller: SplittableRandom doesn't have nextGaussian
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    static double clamp(double x, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, x));
+    }
+
+    static void expand(int i, String[] current, List<String[]> out) {
+        if (i == sweeps.size()) {
+            out.add(current.clone());
+            return;
+        }
+        String[] sweep = sweeps.get(i);
+        for (int j = 1; j < sweep.length; j++) {
+            current[i] = sweep[0] + "=" + sweep[j];
+            expand(i + 1, current, out);
+        }
+    }
+
+    static void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--player":
+                    player = args[++i];
+                    break;
+                case "--opponents":
+                    opponents = args[++i].split(",");
+                    break;
+                case "--set":
+                    String[] kv = args[++i].split("=");
+                    String[] values = kv[1].split(",");
+                    String[] sweep = new String[values.length + 1];
+                    sweep[0] = kv[0];
+                    System.arraycopy(values, 0, sweep, 1, values.length);
+                    sweeps.add(sweep);
+                    break;
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--rounds":
+                    rounds = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+    }
+}
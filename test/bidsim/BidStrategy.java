@@ -0,0 +1,36 @@
+package bidsim;
+
+/**
+ * A bidding strategy for one side of a simulated game. Mirrors `strategy.py` in
+ * scripts/bidder_testing: given the round, our influence and our votes, return a bid.
+ */
+interface BidStrategy {
+    int bid(int round, int influence, int votes);
+
+    /**
+     * Tells the strategy whether its last bid won. Scripted strategies can ignore this.
+     */
+    default void result(boolean won) {
+    }
+
+    /**
+     * Builds a fresh strategy from its command line name, e.g. `constant:20`, `max`
+     * or `bot:quals` (a real BidController, loaded from the given package).
+     */
+    static BidStrategy parse(String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "constant":
+                int constant = parts.length > 1 ? Integer.parseInt(parts[1]) : 20;
+                return (round, influence, votes) -> constant;
+            case "max":
+                return (round, influence, votes) -> influence;
+            case "fraction":
+                double fraction = parts.length > 1 ? Double.parseDouble(parts[1]) : 0.05;
+                return (round, influence, votes) -> (int) (influence * fraction);
+            case "bot":
+                return new BotBidder(parts.length > 1 ? parts[1] : "quals", new String[0], BotBidder.OPPONENT_ID);
+        }
+        throw new IllegalArgumentException("Unknown strategy: " + spec);
+    }
+}
@@ -0,0 +1,107 @@
+package bidsim;
+
+import battlecode.common.RobotController;
+import battlecode.common.RobotType;
+import battlecode.common.Team;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Drives a player's real BidController. The controller is loaded in its own class loader
+ * (so its statics belong to this game alone) and talks to a stand-in RobotController
+ * that only knows about influence, votes and the round number.
+ */
+class BotBidder implements BidStrategy {
+    // robot IDs of the two sides: they seed the bots' random numbers, which must not be shared
+    static final int PLAYER_ID = 10000;
+    static final int OPPONENT_ID = 10001;
+
+    private final Object controller;
+    private final Method update;
+    private final Method bid;
+
+    private int round;
+    private int influence;
+    private int votes;
+    private int lastBid;
+
+    /**
+     * @param packageName the player package holding BidController, e.g. `quals`
+     * @param overrides   `FIELD=value` assignments for BidController's static tuning fields
+     * @param id          the robot ID the controller sees (PLAYER_ID or OPPONENT_ID)
+     */
+    BotBidder(String packageName, String[] overrides, int id) {
+        try {
+            ClassLoader loader = new IsolatingClassLoader(packageName, BotBidder.class.getClassLoader());
+            RobotController rc = (RobotController) Proxy.newProxyInstance(loader,
+                    new Class<?>[]{RobotController.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getRoundNum":
+                                return round;
+                            case "getInfluence":
+                                return influence;
+                            case "getTeamVotes":
+                                return votes;
+                            case "getID":
+                                return id;
+                            case "getType":
+                                return RobotType.ENLIGHTENMENT_CENTER;
+                            case "getTeam":
+                                return Team.A;
+                            case "canBid":
+                                return (int) args[0] <= influence;
+                            case "bid":
+                                lastBid = (int) args[0];
+                                return null;
+                            case "toString":
+                                return "BotBidder stand-in";
+                        }
+                        throw new UnsupportedOperationException("Not simulated: RobotController." + method.getName());
+                    });
+
+            setStatic(loader.loadClass(packageName + ".Robot"), "rc", rc);
+            setStatic(loader.loadClass(packageName + ".Robot"), "reproducible", true); // same bids for the same --seed
+            setStatic(loader.loadClass(packageName + ".QueueController"), "rc", rc);
+
+            Class<?> controllerClass = loader.loadClass(packageName + ".BidController");
+            for (String override : overrides) {
+                String[] kv = override.split("=");
+                Field field = controllerClass.getDeclaredField(kv[0]);
+                field.setAccessible(true);
+                if (field.getType() == double.class) field.setDouble(null, Double.parseDouble(kv[1]));
+                else if (field.getType() == int.class) field.setInt(null, Integer.parseInt(kv[1]));
+                else if (field.getType() == boolean.class) field.setBoolean(null, Boolean.parseBoolean(kv[1]));
+                else throw new IllegalArgumentException("Can't override " + kv[0]);
+            }
+
+            controller = controllerClass.getDeclaredConstructor().newInstance();
+            update = controllerClass.getDeclaredMethod("update");
+            bid = controllerClass.getDeclaredMethod("bid");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Couldn't load " + packageName + ".BidController", e);
+        }
+    }
+
+    private static void setStatic(Class<?> cls, String name, Object value) throws ReflectiveOperationException {
+        Field field = cls.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(null, value);
+    }
+
+    @Override
+    public int bid(int round, int influence, int votes) {
+        this.round = round;
+        this.influence = influence;
+        this.votes = votes;
+        this.lastBid = 0;
+        try {
+            update.invoke(controller);
+            bid.invoke(controller);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BidController threw in round " + round, e);
+        }
+        return lastBid;
+    }
+}
@@ -0,0 +1,59 @@
+package bidsim;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads a player package in its own namespace, the way the engine does for every robot.
+ * Players keep all of their state in statics, so each simulated game needs fresh copies
+ * of the classes. Everything outside of the package (e.g. battlecode.common) is shared.
+ */
+class IsolatingClassLoader extends ClassLoader {
+    private static final Map<String, byte[]> BYTECODE = new ConcurrentHashMap<>();
+
+    private final String prefix;
+
+    IsolatingClassLoader(String packageName, ClassLoader parent) {
+        super(parent);
+        this.prefix = packageName + ".";
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!name.startsWith(prefix))
+            return super.loadClass(name, resolve);
+
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> c = findLoadedClass(name);
+            if (c == null) {
+                byte[] bytes = bytecode(name);
+                c = defineClass(name, bytes, 0, bytes.length);
+            }
+            if (resolve) resolveClass(c);
+            return c;
+        }
+    }
+
+    private byte[] bytecode(String name) throws ClassNotFoundException {
+        byte[] cached = BYTECODE.get(name);
+        if (cached != null) return cached;
+
+        String resource = name.replace('.', '/') + ".class";
+        try (InputStream in = getParent().getResourceAsStream(resource)) {
+            if (in == null) throw new ClassNotFoundException(name);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                out.write(buffer, 0, read);
+            byte[] bytes = out.toByteArray();
+            BYTECODE.put(name, bytes);
+            return bytes;
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+}
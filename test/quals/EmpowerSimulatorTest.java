@@ -0,0 +1,72 @@
+package quals;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotType;
+import battlecode.common.Team;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EmpowerSimulatorTest {
+    static final MapLocation SPEAKER = new MapLocation(10000, 10000);
+    static final MapLocation TARGET = new MapLocation(10001, 10000);
+
+    int speaker;
+
+    @Before
+    public void setUp() {
+        EmpowerSimulator.reset();
+        speaker = EmpowerSimulator.add(SPEAKER, Team.A, RobotType.POLITICIAN, 110, 110);
+    }
+
+    @Test
+    public void friendlyECIsNotBuffed() {
+        int ec = EmpowerSimulator.add(TARGET, Team.A, RobotType.ENLIGHTENMENT_CENTER, 50, 50);
+        EmpowerSimulator.empower(speaker, 1, 2.0);
+        assertEquals(150, EmpowerSimulator.conviction[ec]);
+        assertEquals(150, EmpowerSimulator.influence[ec]);
+    }
+
+    @Test
+    public void enemyECBuffedOnlyUntilItFlips() {
+        // 100 given: 25 of it, doubled, cancels the EC's 50, and the other 75 stay unbuffed
+        int ec = EmpowerSimulator.add(TARGET, Team.B, RobotType.ENLIGHTENMENT_CENTER, 50, 50);
+        EmpowerSimulator.empower(speaker, 1, 2.0);
+        assertEquals(Team.A, EmpowerSimulator.teams[ec]);
+        assertEquals(75, EmpowerSimulator.conviction[ec]);
+        assertEquals(75, EmpowerSimulator.influence[ec]);
+    }
+
+    @Test
+    public void enemyECBuffedFullyIfItHolds() {
+        int ec = EmpowerSimulator.add(TARGET, Team.B, RobotType.ENLIGHTENMENT_CENTER, 300, 300);
+        EmpowerSimulator.empower(speaker, 1, 2.0);
+        assertEquals(Team.B, EmpowerSimulator.teams[ec]);
+        assertEquals(100, EmpowerSimulator.conviction[ec]);
+    }
+
+    @Test
+    public void unitsAreBuffed() {
+        int pol = EmpowerSimulator.add(TARGET, Team.B, RobotType.POLITICIAN, 150, 150);
+        EmpowerSimulator.empower(speaker, 1, 1.5);
+        assertEquals(Team.B, EmpowerSimulator.teams[pol]);
+        assertEquals(0, EmpowerSimulator.conviction[pol]);
+    }
+
+    @Test
+    public void convictionNeededIsTight() {
+        double buff = 2.0;
+        int needed = EmpowerSimulator.convictionNeeded(50, 1, buff);
+        assertTrue(flips(needed, buff));
+        assertFalse(flips(needed - 1, buff));
+    }
+
+    static boolean flips(int speakerConviction, double buff) {
+        EmpowerSimulator.reset();
+        int speaker = EmpowerSimulator.add(SPEAKER, Team.A, RobotType.POLITICIAN, speakerConviction, speakerConviction);
+        int ec = EmpowerSimulator.add(TARGET, Team.NEUTRAL, RobotType.ENLIGHTENMENT_CENTER, 50, 50);
+        EmpowerSimulator.empower(speaker, 1, buff);
+        return EmpowerSimulator.teams[ec] == Team.A;
+    }
+}